@@ -0,0 +1,62 @@
+package com.gameofjess.javachess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Perft;
+import com.gameofjess.javachess.chesslogic.Position;
+
+/**
+ * Benchmarks cloning a Board and validating moves received from a client.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"START", "KIWIPETE"})
+    private String position;
+
+    private Board board;
+    private Move validMove;
+    private Move invalidMove;
+
+    @Setup
+    public void setup() {
+        board = Perft.Reference.valueOf(position).getBoard();
+        // a2a3 is legal in both positions, a2a5 is not
+        validMove = new Move(new Position(7, 1), new Position(7, 2));
+        invalidMove = new Move(new Position(7, 1), new Position(7, 4));
+    }
+
+    @Benchmark
+    public Board cloneBoard() {
+        return new Board(board);
+    }
+
+    @Benchmark
+    public boolean isMoveValid() {
+        return board.isMoveValid(validMove);
+    }
+
+    @Benchmark
+    public boolean isMoveInvalid() {
+        return board.isMoveValid(invalidMove);
+    }
+}
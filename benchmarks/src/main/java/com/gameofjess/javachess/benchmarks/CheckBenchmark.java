@@ -0,0 +1,65 @@
+package com.gameofjess.javachess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Perft;
+import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.chesslogic.pieces.King;
+
+/**
+ * Benchmarks the check and checkmate detection of the white King, which the server runs after
+ * every move. The checkmate detection is cheapest when a move is found early and most expensive
+ * when the King actually is checkmate and every piece has to be tried.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckBenchmark {
+
+    @Param({"START", "KIWIPETE", "FOOLS_MATE"})
+    private String position;
+
+    private King king;
+
+    @Setup
+    public void setup() {
+        Board board;
+        if (position.equals("FOOLS_MATE")) {
+            board = new Board();
+            board.makeMove(new Move(new Position(2, 1), new Position(2, 2)));
+            board.makeMove(new Move(new Position(3, 6), new Position(3, 4)));
+            board.makeMove(new Move(new Position(1, 1), new Position(1, 3)));
+            board.makeMove(new Move(new Position(4, 7), new Position(0, 3)));
+        } else {
+            board = Perft.Reference.valueOf(position).getBoard();
+        }
+        king = board.getKingWhite();
+    }
+
+    @Benchmark
+    public boolean checkCheck() {
+        return king.checkCheck();
+    }
+
+    @Benchmark
+    public boolean checkCheckMate() {
+        return king.checkCheckMate();
+    }
+}
@@ -0,0 +1,67 @@
+package com.gameofjess.javachess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.helper.messages.ClientMessage;
+import com.gameofjess.javachess.helper.messages.MessageType;
+import com.gameofjess.javachess.helper.messages.ServerMessage;
+
+/**
+ * Benchmarks the JSON encoding and decoding of the messages sent between client and server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MessageBenchmark {
+
+    private Move move;
+    private ClientMessage clientMessage;
+    private ServerMessage serverMessage;
+    private String clientJson;
+    private String serverJson;
+
+    @Setup
+    public void setup() {
+        move = new Move(new Position(3, 1), new Position(3, 3));
+        clientMessage = new ClientMessage(move);
+        serverMessage = new ServerMessage("TestUser", MessageType.NEWMOVE, clientMessage.getMessage());
+        clientJson = clientMessage.toJSON();
+        serverJson = serverMessage.toJSON();
+    }
+
+    @Benchmark
+    public String encodeClientMessage() {
+        return new ClientMessage(move).toJSON();
+    }
+
+    @Benchmark
+    public ClientMessage decodeClientMessage() {
+        return new ClientMessage(clientJson);
+    }
+
+    @Benchmark
+    public String encodeServerMessage() {
+        return serverMessage.toJSON();
+    }
+
+    @Benchmark
+    public ServerMessage decodeServerMessage() {
+        return new ServerMessage(serverJson);
+    }
+}
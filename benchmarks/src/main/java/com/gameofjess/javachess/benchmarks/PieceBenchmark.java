@@ -0,0 +1,56 @@
+package com.gameofjess.javachess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Perft;
+import com.gameofjess.javachess.chesslogic.pieces.Piece;
+
+/**
+ * Benchmarks the move generation of a single white piece of every piece type in the Kiwipete
+ * position, in which every piece type has moves including castling and captures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceBenchmark {
+
+    @Param({"Pawn", "Knight", "Bishop", "Rook", "Queen", "King"})
+    private String pieceType;
+
+    private Piece piece;
+
+    @Setup
+    public void setup() {
+        Board board = Perft.Reference.KIWIPETE.getBoard();
+        piece = board.getBoardMap().values().stream()
+                .filter(p -> p.isWhite() && p.getClass().getSimpleName().equals(pieceType) && p.getMoves().length > 0)
+                .findFirst().orElseThrow(() -> new IllegalStateException("No movable white " + pieceType));
+    }
+
+    @Benchmark
+    public Move[] getMoves() {
+        return piece.getMoves();
+    }
+
+    @Benchmark
+    public Move[] getPseudoLegalMoves() {
+        return piece.getMoves(false);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gameofjess.javachess.benchmarks;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+import org.java_websocket.handshake.ClientHandshake;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.helper.game.Color;
+import com.gameofjess.javachess.helper.messages.ClientMessage;
+import com.gameofjess.javachess.server.Server;
+import com.gameofjess.javachess.server.ServerBuilder;
+
+/**
+ * Benchmarks the handling of a new move by the server with two players connected through mocked
+ * WebSockets. Server.handleClientMessage is private, so the messages are passed to onMessage,
+ * which additionally decodes the JSON. The players move their knights back and forth, so every
+ * move is valid. A new game is started after every cycle of four moves, before the starting
+ * position occurs for the third time, so every measured move is a normal move that does not end the
+ * game and the move history stays short. Starting the game happens outside the measured time, at the
+ * cost of the timing overhead of a setup before every invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ServerBenchmark {
+
+    private Server server;
+    private WebSocket white;
+    private WebSocket black;
+    private String[] moves;
+    private int index;
+
+    @Setup
+    public void setup() {
+        moves = new String[] {
+                new ClientMessage(new Move(new Position(6, 0), new Position(5, 2))).toJSON(),
+                new ClientMessage(new Move(new Position(6, 7), new Position(5, 5))).toJSON(),
+                new ClientMessage(new Move(new Position(5, 2), new Position(6, 0))).toJSON(),
+                new ClientMessage(new Move(new Position(5, 5), new Position(6, 7))).toJSON()
+        };
+    }
+
+    @Setup(Level.Invocation)
+    public void newGame() {
+        if ((index & 3) == 0) {
+            server = new ServerBuilder().build();
+            white = mockWebSocket();
+            black = mockWebSocket();
+            server.onOpen(white, mockHandshake("White", Color.WHITE));
+            server.onOpen(black, mockHandshake("Black", Color.BLACK));
+        }
+    }
+
+    @Benchmark
+    public void handleNewMove() {
+        int i = index++ & 3;
+        server.onMessage(i % 2 == 0 ? white : black, moves[i]);
+    }
+
+    private static WebSocket mockWebSocket() {
+        WebSocket webSocket = mock(WebSocketImpl.class);
+        doCallRealMethod().when(webSocket).setAttachment(any(UUID.class));
+        doCallRealMethod().when(webSocket).getAttachment();
+        when(webSocket.getRemoteSocketAddress()).thenReturn(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        return webSocket;
+    }
+
+    private static ClientHandshake mockHandshake(String username, Color color) {
+        ClientHandshake handshake = mock(ClientHandshake.class);
+        when(handshake.hasFieldValue("username")).thenReturn(true);
+        when(handshake.getFieldValue("username")).thenReturn(username);
+        when(handshake.hasFieldValue("color")).thenReturn(true);
+        when(handshake.getFieldValue("color")).thenReturn(color.name());
+        return handshake;
+    }
+}
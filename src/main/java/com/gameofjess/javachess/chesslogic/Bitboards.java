@@ -0,0 +1,322 @@
+package com.gameofjess.javachess.chesslogic;
+
+public final class Bitboards {
+	/**
+	 * Helper Class for the bitboard representation of the Chessboard.
+	 * A bitboard is a long in which bit n stands for the square n = y * 8 + x,
+	 * so bit 0 is Position (0,0) and bit 63 is Position (7,7).
+	 */
+
+	public static final int PAWN = 0;
+	public static final int KNIGHT = 1;
+	public static final int BISHOP = 2;
+	public static final int ROOK = 3;
+	public static final int QUEEN = 4;
+	public static final int KING = 5;
+
+	public static final long FILE_0 = 0x0101010101010101L;
+	public static final long FILE_1 = FILE_0 << 1;
+	public static final long FILE_6 = FILE_0 << 6;
+	public static final long FILE_7 = FILE_0 << 7;
+	public static final long RANK_0 = 0xFFL;
+	public static final long RANK_7 = RANK_0 << 56;
+
+	/**
+	 * Squares strictly between two squares on a common rank, file or diagonal, indexed by from * 64 + to
+	 */
+	private static final long[] BETWEEN = new long[64 * 64];
+	/**
+	 * The whole rank, file or diagonal through two squares, indexed by from * 64 + to
+	 */
+	private static final long[] LINE = new long[64 * 64];
+
+	static {
+		int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+		for (int from = 0; from < 64; from++) {
+			for (int[] direction : directions) {
+				long fullLine = ray(from, 0L, direction[0], direction[1]) | ray(from, 0L, -direction[0], -direction[1]) | bit(from);
+				long between = 0L;
+				int x = getX(from) + direction[0];
+				int y = getY(from) + direction[1];
+				while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+					int to = square(x, y);
+					BETWEEN[from * 64 + to] = between;
+					LINE[from * 64 + to] = fullLine;
+					between |= bit(to);
+					x += direction[0];
+					y += direction[1];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Attacks of the leaping pieces by square, computed once at class load
+	 */
+	private static final long[] KNIGHT_ATTACKS = new long[64];
+	private static final long[] KING_ATTACKS = new long[64];
+	private static final long[] WHITE_PAWN_ATTACKS = new long[64];
+	private static final long[] BLACK_PAWN_ATTACKS = new long[64];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			long b = bit(square);
+			KNIGHT_ATTACKS[square] = ((b << 17 | b >>> 15) & ~FILE_0)
+					| ((b << 15 | b >>> 17) & ~FILE_7)
+					| ((b << 10 | b >>> 6) & ~(FILE_0 | FILE_1))
+					| ((b << 6 | b >>> 10) & ~(FILE_6 | FILE_7));
+			long sides = ((b << 1) & ~FILE_0) | ((b >>> 1) & ~FILE_7);
+			long row = b | sides;
+			KING_ATTACKS[square] = sides | row << 8 | row >>> 8;
+			WHITE_PAWN_ATTACKS[square] = ((b << 9) & ~FILE_0) | ((b << 7) & ~FILE_7);
+			BLACK_PAWN_ATTACKS[square] = ((b >>> 7) & ~FILE_0) | ((b >>> 9) & ~FILE_7);
+		}
+	}
+
+	/**
+	 * Magic bitboard tables of the sliding pieces. The relevant blockers of a square (its rays without
+	 * the edge of the board) are multiplied by a magic number, which maps every combination of
+	 * blockers to its own index in the attack table. Looking up the attacks takes a mask, a
+	 * multiplication, a shift and a table load.
+	 * The magic numbers were found by a random search, the tables are built from them at class load.
+	 */
+	private static final long[] ROOK_MAGICS = {
+			0x6180088210204000L, 0x0240001000200140L, 0xA080100080082000L, 0x208004F000080280L,
+			0x0080080080040002L, 0x3080040001800200L, 0x04001800A1100204L, 0x8100008042AA1100L,
+			0x0010800020804000L, 0x0000802000400082L, 0x0091004013012000L, 0x4800808008001000L,
+			0x0A12800800802400L, 0x0103000300040028L, 0x0021002100820004L, 0x8001000080610002L,
+			0x0080014020004000L, 0x8C40010020448900L, 0x0000110020010042L, 0x2608220010420009L,
+			0x0100808008000400L, 0x0002808004000200L, 0x0000040008010210L, 0x4404020009048C54L,
+			0x4400400080208002L, 0x9800200140100040L, 0x0802001200428220L, 0x0004100100200900L,
+			0x0C49880100041100L, 0x40102008010410C0L, 0x0020410400021890L, 0x40080282000C0153L,
+			0x000A401420800080L, 0x3140024082802000L, 0x2800802004801008L, 0x0420204202001008L,
+			0x0D14810801800400L, 0xA002040080800200L, 0x0130800200800100L, 0x800A089102000044L,
+			0x0401004080010020L, 0x0450044020024003L, 0x0030040028002000L, 0x203000210011000CL,
+			0x0018000409010010L, 0x4001001C00030008L, 0x0400020001008080L, 0x204000A041020004L,
+			0x2080004000200040L, 0x2000802200410200L, 0x0120804018220200L, 0x0048008048100180L,
+			0x0A00480011000500L, 0x4028800200040080L, 0x0000100241680400L, 0x0041040940810600L,
+			0x0800204200108102L, 0x0000201040010C81L, 0x0420082001001041L, 0x0800042008100101L,
+			0x0602000420081046L, 0x000A009001040802L, 0x0000008810010244L, 0x0801005401002082L
+	};
+	private static final long[] BISHOP_MAGICS = {
+			0x0241120212020410L, 0x1008100088850024L, 0x8010410200200210L, 0x2008204046000050L,
+			0x052202104110C001L, 0x0118410820400300L, 0x0001008820081084L, 0x0034410810900400L,
+			0x0030C01404848606L, 0x042A021002309100L, 0x00A2182281220800L, 0x409008158108004AL,
+			0x4010011040802013L, 0x0200108220201008L, 0x4000043504100440L, 0x8208021101080200L,
+			0x0005288828080820L, 0xA104002188008100L, 0x0020440418008110L, 0x040401880120A280L,
+			0x0011012990400060L, 0x00C1000210008402L, 0x0020614101082020L, 0x010100008090B010L,
+			0x602084090A082805L, 0x1010880002420400L, 0x0000480104102400L, 0x040208040C004028L,
+			0x2020840012020200L, 0x245003000A8080CAL, 0x0482006008841000L, 0x1300A08009044800L,
+			0x8002084018061000L, 0x0020841014A08204L, 0x0301080103080040L, 0x0864020080080081L,
+			0xAA00860200240108L, 0x00A0008504008045L, 0x8008008110440104L, 0x0011210020060200L,
+			0x000824501911C401L, 0x0400440420000400L, 0x0000802801041800L, 0x4040092104002040L,
+			0x0010B40102100400L, 0x4120421054402200L, 0x0005881200420400L, 0x0808014042008084L,
+			0x2804020803080202L, 0x84010C0C8C040440L, 0x0001802084100080L, 0x00001AC0AA080081L,
+			0x80310D48A1010142L, 0x008020A002008000L, 0x0005080218260004L, 0x040408C485020000L,
+			0x0081144410082801L, 0x0D0002209828086AL, 0x000400005200B002L, 0x180C000410420203L,
+			0x10002040C1084840L, 0x50200A0420480640L, 0x00100A1084080044L, 0x00200D1041170020L
+	};
+	private static final long[] ROOK_MASKS = new long[64];
+	private static final int[] ROOK_SHIFTS = new int[64];
+	private static final int[] ROOK_OFFSETS = new int[64];
+	private static final long[] ROOK_ATTACKS;
+	private static final long[] BISHOP_MASKS = new long[64];
+	private static final int[] BISHOP_SHIFTS = new int[64];
+	private static final int[] BISHOP_OFFSETS = new int[64];
+	private static final long[] BISHOP_ATTACKS;
+
+	static {
+		ROOK_ATTACKS = initMagics(new int[][] {{1, 0}, {-1, 0}, {0, 1}, {0, -1}}, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+		BISHOP_ATTACKS = initMagics(new int[][] {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}}, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+	}
+
+	private Bitboards() {
+	}
+
+	/**
+	 * Fill the attack table of a sliding piece for every square and combination of blockers
+	 * @return the attack table shared by all squares
+	 */
+	private static long[] initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+		int size = 0;
+		for (int square = 0; square < 64; square++) {
+			long mask = 0L;
+			for (int[] direction : directions) {
+				mask |= ray(square, 0L, direction[0], direction[1]) & ~edges(direction);
+			}
+			masks[square] = mask;
+			shifts[square] = 64 - Long.bitCount(mask);
+			offsets[square] = size;
+			size += 1 << Long.bitCount(mask);
+		}
+
+		long[] table = new long[size];
+		for (int square = 0; square < 64; square++) {
+			// enumerate all subsets of the mask
+			long blockers = 0L;
+			do {
+				long attacks = 0L;
+				for (int[] direction : directions) {
+					attacks |= ray(square, blockers, direction[0], direction[1]);
+				}
+				int index = offsets[square] + (int) ((blockers * magics[square]) >>> shifts[square]);
+				// an index may only be shared by combinations of blockers with the same attacks
+				if (table[index] != 0L && table[index] != attacks) {
+					throw new IllegalStateException("Invalid magic number for square " + square);
+				}
+				table[index] = attacks;
+				blockers = (blockers - masks[square]) & masks[square];
+			} while (blockers != 0L);
+		}
+		return table;
+	}
+
+	/**
+	 * @return the squares at the end of a ray that do not block any other square
+	 */
+	private static long edges(int[] direction) {
+		long edges = 0L;
+		if (direction[0] == 1) {
+			edges |= FILE_7;
+		} else if (direction[0] == -1) {
+			edges |= FILE_0;
+		}
+		if (direction[1] == 1) {
+			edges |= RANK_7;
+		} else if (direction[1] == -1) {
+			edges |= RANK_0;
+		}
+		return edges;
+	}
+
+	/**
+	 * @param x value of the position between 0 and 7
+	 * @param y value of the position between 0 and 7
+	 * @return square index between 0 and 63
+	 */
+	public static int square(int x, int y) {
+		return y << 3 | x;
+	}
+
+	/**
+	 * @param position Position to convert
+	 * @return square index between 0 and 63
+	 */
+	public static int square(Position position) {
+		return square(position.getX(), position.getY());
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return the x value of the square
+	 */
+	public static int getX(int square) {
+		return square & 7;
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return the y value of the square
+	 */
+	public static int getY(int square) {
+		return square >>> 3;
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return bitboard with only the given square set
+	 */
+	public static long bit(int square) {
+		return 1L << square;
+	}
+
+	/**
+	 * @param from square index between 0 and 63
+	 * @param to square index between 0 and 63
+	 * @return bitboard of the squares strictly between both squares, or 0 if they are not on a common line
+	 */
+	public static long between(int from, int to) {
+		return BETWEEN[from * 64 + to];
+	}
+
+	/**
+	 * @param from square index between 0 and 63
+	 * @param to square index between 0 and 63
+	 * @return bitboard of the whole line through both squares, or 0 if they are not on a common line
+	 */
+	public static long line(int from, int to) {
+		return LINE[from * 64 + to];
+	}
+
+	/**
+	 * @param square square index of the knight
+	 * @return bitboard of all squares attacked by a knight
+	 */
+	public static long knightAttacks(int square) {
+		return KNIGHT_ATTACKS[square];
+	}
+
+	/**
+	 * @param square square index of the king
+	 * @return bitboard of all squares attacked by a king
+	 */
+	public static long kingAttacks(int square) {
+		return KING_ATTACKS[square];
+	}
+
+	/**
+	 * @param square square index of the pawn
+	 * @param white color of the pawn
+	 * @return bitboard of the two diagonal squares a pawn attacks
+	 */
+	public static long pawnAttacks(int square, boolean white) {
+		return white ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+	}
+
+	/**
+	 * @param square square index of the rook
+	 * @param occupied bitboard of all occupied squares
+	 * @return bitboard of all squares attacked along the ranks and files, including the first blocker
+	 */
+	public static long rookAttacks(int square, long occupied) {
+		return ROOK_ATTACKS[ROOK_OFFSETS[square] + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+	}
+
+	/**
+	 * @param square square index of the bishop
+	 * @param occupied bitboard of all occupied squares
+	 * @return bitboard of all squares attacked along the diagonals, including the first blocker
+	 */
+	public static long bishopAttacks(int square, long occupied) {
+		return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+	}
+
+	/**
+	 * @param square square index of the queen
+	 * @param occupied bitboard of all occupied squares
+	 * @return bitboard of all squares attacked by a queen
+	 */
+	public static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	/**
+	 * Walk from a square into one direction until the edge of the board or the first blocker.
+	 * Only used to build the tables.
+	 */
+	private static long ray(int square, long occupied, int dx, int dy) {
+		long attacks = 0L;
+		int x = getX(square) + dx;
+		int y = getY(square) + dy;
+		while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+			long b = bit(square(x, y));
+			attacks |= b;
+			if ((occupied & b) != 0) {
+				break;
+			}
+			x += dx;
+			y += dy;
+		}
+		return attacks;
+	}
+}
@@ -1,11 +1,13 @@
 package com.gameofjess.javachess.chesslogic;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.BidiMap;
 import org.apache.commons.collections4.bidimap.DualHashBidiMap;
+import org.apache.commons.collections4.bidimap.UnmodifiableBidiMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -18,11 +20,127 @@ public class Board {
 	 */
 	private static final Logger log = LogManager.getLogger(Board.class);
 
-	private BidiMap<Position, Piece> board = new DualHashBidiMap<>();
+	/**
+	 * FEN letters of the piece types in the order of {@link Bitboards}
+	 */
+	private static final String FEN_PIECES = "pnbrqk";
+	/**
+	 * Squares of the same color as square 0
+	 */
+	private static final long DARK_SQUARES = 0xAA55AA55AA55AA55L;
+
+	/**
+	 * Mailbox of the pieces indexed by square
+	 */
+	private final Piece[] squares = new Piece[64];
+	/**
+	 * Pieces of the white (0) and the black (1) side in no particular order. Every piece knows its
+	 * index in the list, so adding and removing takes constant time.
+	 */
+	private final Piece[][] pieceLists = {new Piece[16], new Piece[16]};
+	private final int[] pieceCounts = new int[2];
+
+	/**
+	 * One bitboard per piece type and color, indexed by {@link #index(int, boolean)}
+	 */
+	private final long[] pieceBitboards = new long[12];
+	/**
+	 * Occupancy of the white (0) and the black (1) pieces
+	 */
+	private final long[] colorBitboards = new long[2];
+	private long occupied;
+
+	/**
+	 * Pieces giving check to the white (0) and the black (1) king
+	 */
+	private final long[] checkers = new long[2];
+	/**
+	 * Pieces of the white (0) and the black (1) side that are pinned to their own king
+	 */
+	private final long[] pinned = new long[2];
+	/**
+	 * Whether checkers and pinned are up-to-date for the current position
+	 */
+	private final boolean[] legalInfoValid = new boolean[2];
+
+	/**
+	 * Counter incremented with every change of the position, used to tell if cached data is outdated
+	 */
+	private long modificationCount;
+	/**
+	 * Legal moves of the white (0) and the black (1) side, valid while the modification count
+	 * equals the one they were generated at
+	 */
+	private final MoveList[] legalMoveLists = {new MoveList(), new MoveList()};
+	private final Move[][] legalMoves = new Move[2][];
+	private final long[] legalMovesModificationCount = {-1L, -1L};
+	/**
+	 * Last snapshot taken and the modification count it was taken at
+	 */
+	private BoardSnapshot snapshot;
+	private long snapshotModificationCount;
+	/**
+	 * Last map returned by {@link #getBoardMap()} and the modification count it was built at
+	 */
+	private BidiMap<Position, Piece> boardMap;
+	private long boardMapModificationCount;
+	/**
+	 * Move list reused by {@link #hasAnyLegalMove(boolean)}
+	 */
+	private final MoveList anyLegalMove = new MoveList();
 
 	private King kingWhite;
 	private King kingBlack;
 
+	private boolean whiteToMove = true;
+	/**
+	 * The Pawn that has just moved two squares and can be captured by enpassant, or null
+	 */
+	private Pawn enpassantPawn;
+
+	/**
+	 * Zobrist key of the current position, updated with every change on the Board
+	 * @see Zobrist
+	 */
+	private long zobristKey;
+	/**
+	 * Zobrist key of the Pawns only, which identifies the pawn structure
+	 */
+	private long pawnKey;
+	/**
+	 * Castling rights included in the Zobrist key
+	 */
+	private int castlingRights;
+	/**
+	 * Enpassant key included in the Zobrist key, 0 if no enpassant capture is possible
+	 */
+	private long enpassantKey;
+
+	/**
+	 * Middlegame and endgame score from the view of white and the phase of the position, updated
+	 * with every change on the Board
+	 * @see PieceSquareTables
+	 */
+	private int midgameScore;
+	private int endgameScore;
+	private int phase;
+
+	/**
+	 * Half moves since the last capture or Pawn move
+	 */
+	private int halfmoveClock;
+	/**
+	 * Number of the current full move, starting at 1 and incremented after every move of black
+	 */
+	private int fullmoveNumber = 1;
+
+	/**
+	 * Stack of the states needed to undo the moves made with {@link #makeMove(Move)}.
+	 * The entries are reused so making and unmaking moves does not allocate.
+	 */
+	private MoveState[] history = new MoveState[64];
+	private int historySize;
+
 	/**
 	 * Create a new Chessboard and set it to the initial position
 	 */
@@ -31,17 +149,62 @@ public class Board {
 		log.info("Creating board");
 	}
 
+	/**
+	 * Create a new Chessboard and set it to the position described by a FEN string
+	 * @param fen position in Forsyth-Edwards Notation
+	 */
+	private Board(CharSequence fen) {
+		this.initialize(fen);
+		log.trace("Creating board from FEN");
+	}
+
+	/**
+	 * Create a new Chessboard from a position in Forsyth-Edwards Notation. The halfmove clock and the
+	 * fullmove number are optional and default to 0 and 1.
+	 * @param fen position in Forsyth-Edwards Notation
+	 * @return Board set to the position
+	 * @throws IllegalArgumentException if the FEN is malformed
+	 */
+	public static Board fromFen(CharSequence fen) {
+		return new Board(fen);
+	}
+
 	/**
 	 * Constructor to deep clone a Chessboard
 	 * @param board Board to be cloned
 	 */
 	public Board(Board board){
 		log.trace("Cloning board");
-		this.board = new DualHashBidiMap<>(board.getBoardMap().entrySet().stream().parallel().collect(Collectors.toMap(
-				entry -> entry.getKey().getClone(), entry -> entry.getValue().getClone(this)
-		)));
-		this.kingWhite = (King) this.board.values().parallelStream().filter(piece -> piece instanceof King && piece.isWhite()).collect(Collectors.toList()).get(0);
-		this.kingBlack = (King) this.board.values().parallelStream().filter(piece -> piece instanceof King && !piece.isWhite()).collect(Collectors.toList()).get(0);
+		for (int square = 0; square < 64; square++) {
+			Piece piece = board.squares[square];
+			if (piece != null) {
+				Piece clone = piece.getClone(this);
+				place(square, clone);
+				if (clone instanceof King king) {
+					if (king.isWhite()) {
+						kingWhite = king;
+					} else {
+						kingBlack = king;
+					}
+				}
+			}
+		}
+		System.arraycopy(board.pieceBitboards, 0, this.pieceBitboards, 0, pieceBitboards.length);
+		System.arraycopy(board.colorBitboards, 0, this.colorBitboards, 0, colorBitboards.length);
+		this.occupied = board.occupied;
+		this.whiteToMove = board.whiteToMove;
+		if (board.enpassantPawn != null) {
+			this.enpassantPawn = (Pawn) this.squares[board.getSquare(board.enpassantPawn)];
+		}
+		this.zobristKey = board.zobristKey;
+		this.pawnKey = board.pawnKey;
+		this.midgameScore = board.midgameScore;
+		this.endgameScore = board.endgameScore;
+		this.phase = board.phase;
+		this.castlingRights = board.castlingRights;
+		this.enpassantKey = board.enpassantKey;
+		this.halfmoveClock = board.halfmoveClock;
+		this.fullmoveNumber = board.fullmoveNumber;
 	}
 
 	/**
@@ -50,8 +213,8 @@ public class Board {
 	 * @return Position of the passed Piece
 	 */
 	public  Position getPosition(Piece piece){
-		log.trace("Getting Position of {}", piece.getClass().getSimpleName());
-		 return board.getKey(piece);
+		int square = getSquare(piece);
+		return square < 0 ? null : Position.of(square);
 	}
 
 	/**
@@ -59,74 +222,358 @@ public class Board {
 	 */
 	void initialize() {
         log.trace("Initializing board...");
-		board.put(new Position(0, 0), new Rook(this, true, true));
-		board.put(new Position(1, 0), new Knight(this, true));
-		board.put(new Position(2, 0), new Bishop(this, true));
+		boardMapAdd(Position.of(0, 0), new Rook(this, true, true));
+		boardMapAdd(Position.of(1, 0), new Knight(this, true));
+		boardMapAdd(Position.of(2, 0), new Bishop(this, true));
 		kingWhite = new King(this, true);
-		board.put(new Position(3, 0), kingWhite);
-		board.put(new Position(4, 0), new Queen(this, true));
-		// board.put(new Position(4, 0), new King(this, true));
-		board.put(new Position(5, 0), new Bishop(this, true));
-		board.put(new Position(6, 0), new Knight(this, true));
-		board.put(new Position(7, 0), new Rook(this, true, true));
+		boardMapAdd(Position.of(3, 0), kingWhite);
+		boardMapAdd(Position.of(4, 0), new Queen(this, true));
+		// boardMapAdd(Position.of(4, 0), new King(this, true));
+		boardMapAdd(Position.of(5, 0), new Bishop(this, true));
+		boardMapAdd(Position.of(6, 0), new Knight(this, true));
+		boardMapAdd(Position.of(7, 0), new Rook(this, true, true));
 
 		for (int i = 0; i < 8; i++) {
-			board.put(new Position(i, 1), new Pawn(this, true));
+			boardMapAdd(Position.of(i, 1), new Pawn(this, true));
 		}
 
-		board.put(new Position(0, 7), new Rook(this, false, true));
-		board.put(new Position(1, 7), new Knight(this, false));
-		board.put(new Position(2, 7), new Bishop(this, false));
+		boardMapAdd(Position.of(0, 7), new Rook(this, false, true));
+		boardMapAdd(Position.of(1, 7), new Knight(this, false));
+		boardMapAdd(Position.of(2, 7), new Bishop(this, false));
 		kingBlack = new King(this, false);
-		board.put(new Position(3, 7), kingBlack);
-		board.put(new Position(4, 7), new Queen(this, false));
-		// board.put(new Position(4, 7), new King(this, false));
-		board.put(new Position(5, 7), new Bishop(this, false));
-		board.put(new Position(6, 7), new Knight(this, false));
-		board.put(new Position(7, 7), new Rook(this, false, true));
+		boardMapAdd(Position.of(3, 7), kingBlack);
+		boardMapAdd(Position.of(4, 7), new Queen(this, false));
+		// boardMapAdd(Position.of(4, 7), new King(this, false));
+		boardMapAdd(Position.of(5, 7), new Bishop(this, false));
+		boardMapAdd(Position.of(6, 7), new Knight(this, false));
+		boardMapAdd(Position.of(7, 7), new Rook(this, false, true));
 
 		for (int i = 0; i < 8; i++) {
-			board.put(new Position(i, 6), new Pawn(this, false));
+			boardMapAdd(Position.of(i, 6), new Pawn(this, false));
 		}
 
 	}
 
 	void initialize_check(){
 		kingBlack = new King(this, false);
-		board.put(new Position(6, 7), kingBlack);
+		boardMapAdd(Position.of(6, 7), kingBlack);
 		kingWhite = new King(this, true);
-		board.put(new Position(2, 2), kingWhite);
-		board.put(new Position(4, 4), new Bishop(this, true));
-		board.put(new Position(3, 6), new Queen(this, true));
+		boardMapAdd(Position.of(2, 2), kingWhite);
+		boardMapAdd(Position.of(4, 4), new Bishop(this, true));
+		boardMapAdd(Position.of(3, 6), new Queen(this, true));
 	}
 
 	void initialize_promotion(){
 		kingBlack = new King(this, false);
-		board.put(new Position(6, 7), kingBlack);
+		boardMapAdd(Position.of(6, 7), kingBlack);
 		kingWhite = new King(this, true);
-		board.put(new Position(2, 2), kingWhite);
-		board.put(new Position(4, 4), new Bishop(this, true));
-		board.put(new Position(3, 6), new Queen(this, true));
-		board.put(new Position(1,6), new Pawn(this, true));
+		boardMapAdd(Position.of(2, 2), kingWhite);
+		boardMapAdd(Position.of(4, 4), new Bishop(this, true));
+		boardMapAdd(Position.of(3, 6), new Queen(this, true));
+		boardMapAdd(Position.of(1,6), new Pawn(this, true));
 	}
 
 	void initialize_rochade(){
-		board.put(new Position(0, 0), new Rook(this, true, true));
+		boardMapAdd(Position.of(0, 0), new Rook(this, true, true));
 		kingWhite = new King(this, true);
-		board.put(new Position(3, 0), kingWhite);
-		board.put(new Position(7, 0), new Rook(this, true, true));
-		board.put(new Position(0, 7), new Rook(this, false, true));
+		boardMapAdd(Position.of(3, 0), kingWhite);
+		boardMapAdd(Position.of(7, 0), new Rook(this, true, true));
+		boardMapAdd(Position.of(0, 7), new Rook(this, false, true));
 		kingBlack = new King(this, false);
-		board.put(new Position(3, 7), kingBlack);
-		board.put(new Position(7, 7), new Rook(this, false, true));
+		boardMapAdd(Position.of(3, 7), kingBlack);
+		boardMapAdd(Position.of(7, 7), new Rook(this, false, true));
+
+	}
+
+	/**
+	 * Set the Board to a position described by a FEN string. The fields are read in place by their
+	 * index, so parsing does not create any intermediate Strings.
+	 * @param fen position in Forsyth-Edwards Notation
+	 */
+	private void initialize(CharSequence fen) {
+		log.trace("Initializing board from FEN {}", fen);
+		int placementStart = skipSpaces(fen, 0);
+		int placementEnd = skipField(fen, placementStart);
+		int sideStart = skipSpaces(fen, placementEnd);
+		int sideEnd = skipField(fen, sideStart);
+		int castlingStart = skipSpaces(fen, sideEnd);
+		int castlingEnd = skipField(fen, castlingStart);
+		int enpassantStart = skipSpaces(fen, castlingEnd);
+		int enpassantEnd = skipField(fen, enpassantStart);
+		if (sideEnd - sideStart != 1 || castlingEnd == castlingStart || enpassantEnd == enpassantStart) {
+			throw new IllegalArgumentException("Invalid FEN: " + fen);
+		}
+
+		int rights = 0;
+		if (castlingEnd - castlingStart != 1 || fen.charAt(castlingStart) != '-') {
+			for (int i = castlingStart; i < castlingEnd; i++) {
+				rights |= switch (fen.charAt(i)) {
+					case 'K' -> Zobrist.WHITE_SHORT;
+					case 'Q' -> Zobrist.WHITE_LONG;
+					case 'k' -> Zobrist.BLACK_SHORT;
+					case 'q' -> Zobrist.BLACK_LONG;
+					default -> throw new IllegalArgumentException("Invalid castling rights in FEN: " + fen);
+				};
+			}
+		}
+
+		int y = 7;
+		int x = 7;
+		for (int i = placementStart; i < placementEnd; i++) {
+			char c = fen.charAt(i);
+			if (c == '/') {
+				if (x != -1 || y == 0) {
+					throw new IllegalArgumentException("Invalid row in FEN: " + fen);
+				}
+				y--;
+				x = 7;
+			} else if (c >= '1' && c <= '8') {
+				x -= c - '0';
+				if (x < -1) {
+					throw new IllegalArgumentException("Invalid row in FEN: " + fen);
+				}
+			} else {
+				if (x < 0) {
+					throw new IllegalArgumentException("Invalid row in FEN: " + fen);
+				}
+				boolean isWhite = c < 'a';
+				int shortRight = isWhite ? Zobrist.WHITE_SHORT : Zobrist.BLACK_SHORT;
+				int longRight = isWhite ? Zobrist.WHITE_LONG : Zobrist.BLACK_LONG;
+				boolean firstRow = y == (isWhite ? 0 : 7);
+				Piece piece = switch (isWhite ? (char) (c + ('a' - 'A')) : c) {
+					case 'p' -> new Pawn(this, isWhite);
+					case 'n' -> new Knight(this, isWhite);
+					case 'b' -> new Bishop(this, isWhite);
+					case 'r' -> new Rook(this, isWhite, firstRow && ((x == 0 && (rights & shortRight) != 0) || (x == 7 && (rights & longRight) != 0)));
+					case 'q' -> new Queen(this, isWhite);
+					case 'k' -> new King(this, isWhite, (rights & (shortRight | longRight)) != 0);
+					default -> throw new IllegalArgumentException("Invalid piece in FEN: " + fen);
+				};
+				if (piece instanceof King king) {
+					if (isWhite) {
+						kingWhite = king;
+					} else {
+						kingBlack = king;
+					}
+				}
+				boardMapAdd(Position.of(x, y), piece);
+				x--;
+			}
+		}
+		if (x != -1 || y != 0) {
+			throw new IllegalArgumentException("Invalid number of squares in FEN: " + fen);
+		}
+
+		char side = fen.charAt(sideStart);
+		if (side != 'w' && side != 'b') {
+			throw new IllegalArgumentException("Invalid side to move in FEN: " + fen);
+		}
+		setWhiteToMove(side == 'w');
+
+		if (enpassantEnd - enpassantStart != 1 || fen.charAt(enpassantStart) != '-') {
+			char file = fen.charAt(enpassantStart);
+			char row = enpassantEnd - enpassantStart == 2 ? fen.charAt(enpassantStart + 1) : 0;
+			if (file < 'a' || file > 'h' || row != (whiteToMove ? '6' : '3')) {
+				throw new IllegalArgumentException("Invalid enpassant square in FEN: " + fen);
+			}
+			// the pawn that can be captured stands one row behind the enpassant square
+			if (getPiece(Position.of('h' - file, row - '1' + (whiteToMove ? -1 : 1))) instanceof Pawn pawn && pawn.isWhite() != whiteToMove) {
+				pawn.setEnpassant(true);
+				setEnpassantPawn(pawn);
+			}
+		}
+
+		int halfmoveStart = skipSpaces(fen, enpassantEnd);
+		int halfmoveEnd = skipField(fen, halfmoveStart);
+		int fullmoveStart = skipSpaces(fen, halfmoveEnd);
+		int fullmoveEnd = skipField(fen, fullmoveStart);
+		halfmoveClock = parseNumber(fen, halfmoveStart, halfmoveEnd, 0);
+		fullmoveNumber = parseNumber(fen, fullmoveStart, fullmoveEnd, 1);
+		if (skipSpaces(fen, fullmoveEnd) != fen.length() || fullmoveNumber < 1) {
+			throw new IllegalArgumentException("Invalid FEN: " + fen);
+		}
+	}
+
+	private static int skipSpaces(CharSequence fen, int index) {
+		while (index < fen.length() && fen.charAt(index) == ' ') {
+			index++;
+		}
+		return index;
+	}
+
+	private static int skipField(CharSequence fen, int index) {
+		while (index < fen.length() && fen.charAt(index) != ' ') {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * @return the number between start and end or the default value if the field is missing
+	 */
+	private static int parseNumber(CharSequence fen, int start, int end, int defaultValue) {
+		if (start == end) {
+			return defaultValue;
+		}
+		if (end - start > 9) {
+			throw new IllegalArgumentException("Invalid number in FEN: " + fen);
+		}
+		int number = 0;
+		for (int i = start; i < end; i++) {
+			char c = fen.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException("Invalid number in FEN: " + fen);
+			}
+			number = number * 10 + c - '0';
+		}
+		return number;
+	}
+
+	/**
+	 * Describe the current position in Forsyth-Edwards Notation. The enpassant square is given after
+	 * every double step of a Pawn, even if no enemy Pawn can capture.
+	 * @return position in Forsyth-Edwards Notation
+	 */
+	public String toFen() {
+		return toFen(pieceBitboards, whiteToMove, castlingRights, getEnpassantSquare(), halfmoveClock, fullmoveNumber);
+	}
+
+	/**
+	 * Describe a position in Forsyth-Edwards Notation
+	 * @param pieceBitboards one bitboard per piece type and color, white first
+	 * @param whiteToMove side to move
+	 * @param castlingRights castling rights as defined in {@link Zobrist}
+	 * @param enpassantSquare square skipped by the last double step of a Pawn or -1
+	 * @param halfmoveClock half moves since the last capture or Pawn move
+	 * @param fullmoveNumber number of the current full move
+	 * @return position in Forsyth-Edwards Notation
+	 */
+	static String toFen(long[] pieceBitboards, boolean whiteToMove, int castlingRights, int enpassantSquare, int halfmoveClock, int fullmoveNumber) {
+		StringBuilder fen = new StringBuilder(90);
+		for (int y = 7; y >= 0; y--) {
+			int empty = 0;
+			for (int x = 7; x >= 0; x--) {
+				char piece = getFenChar(pieceBitboards, Bitboards.square(x, y));
+				if (piece == 0) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) {
+					fen.append((char) ('0' + empty));
+					empty = 0;
+				}
+				fen.append(piece);
+			}
+			if (empty > 0) {
+				fen.append((char) ('0' + empty));
+			}
+			if (y > 0) {
+				fen.append('/');
+			}
+		}
+		fen.append(whiteToMove ? " w " : " b ");
+		if (castlingRights == 0) {
+			fen.append('-');
+		} else {
+			if ((castlingRights & Zobrist.WHITE_SHORT) != 0) {
+				fen.append('K');
+			}
+			if ((castlingRights & Zobrist.WHITE_LONG) != 0) {
+				fen.append('Q');
+			}
+			if ((castlingRights & Zobrist.BLACK_SHORT) != 0) {
+				fen.append('k');
+			}
+			if ((castlingRights & Zobrist.BLACK_LONG) != 0) {
+				fen.append('q');
+			}
+		}
+		fen.append(' ');
+		if (enpassantSquare < 0) {
+			fen.append('-');
+		} else {
+			fen.append((char) ('h' - Bitboards.getX(enpassantSquare)));
+			fen.append((char) ('1' + Bitboards.getY(enpassantSquare)));
+		}
+		return fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+	}
 
+	/**
+	 * @return the FEN letter of the piece on a square, upper case for white, or 0 if the square is empty
+	 */
+	private static char getFenChar(long[] pieceBitboards, int square) {
+		long bit = Bitboards.bit(square);
+		for (int i = 0; i < pieceBitboards.length; i++) {
+			if ((pieceBitboards[i] & bit) != 0) {
+				char c = FEN_PIECES.charAt(i >> 1);
+				return (i & 1) == 0 ? Character.toUpperCase(c) : c;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * @return the square skipped by the Pawn that can be captured by enpassant or -1
+	 */
+	private int getEnpassantSquare() {
+		int square = enpassantPawn != null ? getSquare(enpassantPawn) : -1;
+		return square < 0 ? -1 : square + (enpassantPawn.isWhite() ? -8 : 8);
 	}
 
 	/**
+	 * Take an immutable snapshot of the current position, which can be read by other threads
+	 * while this Board keeps changing. The snapshot is reused until the position changes.
+	 * @return snapshot of the current position
+	 */
+	public BoardSnapshot snapshot() {
+		if (snapshot == null || snapshotModificationCount != modificationCount) {
+			snapshot = new BoardSnapshot(pieceBitboards.clone(), whiteToMove, castlingRights, getEnpassantSquare(),
+					enpassantKey, halfmoveClock, fullmoveNumber, zobristKey, null);
+			snapshotModificationCount = modificationCount;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * @return half moves since the last capture or Pawn move
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	/**
+	 * @return the number of the current full move, starting at 1
+	 */
+	public int getFullmoveNumber() {
+		return fullmoveNumber;
+	}
+
+	/**
+	 * The map is built from the mailbox and reused until the position changes, so single pieces are
+	 * better looked up with {@link #getPiece(Position)}.
 	 * @return an immutable copy version of the Map representing the Chess bord
 	 */
 	public BidiMap<Position, Piece> getBoardMap() {
-		return org.apache.commons.collections4.bidimap.UnmodifiableBidiMap.unmodifiableBidiMap(board);
+		if (boardMap == null || boardMapModificationCount != modificationCount) {
+			BidiMap<Position, Piece> map = new DualHashBidiMap<>();
+			for (int square = 0; square < 64; square++) {
+				if (squares[square] != null) {
+					map.put(Position.of(square), squares[square]);
+				}
+			}
+			boardMap = UnmodifiableBidiMap.unmodifiableBidiMap(map);
+			boardMapModificationCount = modificationCount;
+		}
+		return boardMap;
+	}
+
+	/**
+	 * @param isWhite color of the pieces
+	 * @return list of all pieces of the given color on the Board
+	 */
+	public List<Piece> getPieces(boolean isWhite) {
+		int color = isWhite ? 0 : 1;
+		return List.of(Arrays.copyOf(pieceLists[color], pieceCounts[color]));
 	}
 
 	/**
@@ -149,7 +596,7 @@ public class Board {
 	 */
 	public void capture(Position position){
 		log.trace("Capturing Piece");
-		board.removeValue(getPiece(position));
+		boardMapRemove(position);
 	}
 
 	/**
@@ -157,12 +604,905 @@ public class Board {
 	 * @param position Position to get the Piece from
 	 * @return piece
 	 */
-	private Piece getPiece(Position position) {
-		return board.get(position);
+	public Piece getPiece(Position position) {
+		return squares[position.getSquare()];
+	}
+
+	/**
+	 * get the piece from a square or null
+	 * @param square square index between 0 and 63
+	 * @return piece
+	 */
+	public Piece getPiece(int square) {
+		return squares[square];
+	}
+
+	/**
+	 * Method to get the square of a given Piece
+	 * @param piece Piece to get the square from
+	 * @return square index between 0 and 63, or -1 if the Piece is not on the Board
+	 */
+	public int getSquare(Piece piece) {
+		int square = piece.getSquare();
+		return square >= 0 && squares[square] == piece ? square : -1;
 	}
 
+	/**
+	 * Put a piece onto the board, replacing a piece already standing on the position
+	 * @param position Position to put the Piece on
+	 * @param piece Piece to put
+	 */
 	public void boardMapAdd(Position position, Piece piece){
-		board.put(position, piece);
+		int square = position.getSquare();
+		int previous = getSquare(piece);
+		if (previous >= 0) {
+			squares[previous] = null;
+			clearBit(previous, piece);
+		}
+		Piece replaced = squares[square];
+		if (replaced != null) {
+			clearBit(square, replaced);
+			unlist(replaced);
+		}
+		if (previous >= 0) {
+			squares[square] = piece;
+			piece.setSquare(square);
+		} else {
+			place(square, piece);
+		}
+		setBit(square, piece);
+	}
+
+	/**
+	 * Put a piece into the mailbox and the piece list of its color without updating the bitboards
+	 */
+	private void place(int square, Piece piece) {
+		int color = piece.isWhite() ? 0 : 1;
+		if (pieceCounts[color] == pieceLists[color].length) {
+			pieceLists[color] = Arrays.copyOf(pieceLists[color], pieceCounts[color] * 2);
+		}
+		piece.setListIndex(pieceCounts[color]);
+		pieceLists[color][pieceCounts[color]++] = piece;
+		squares[square] = piece;
+		piece.setSquare(square);
+	}
+
+	/**
+	 * Remove a piece from the piece list of its color by moving the last piece of the list into its place
+	 */
+	private void unlist(Piece piece) {
+		int color = piece.isWhite() ? 0 : 1;
+		int index = piece.getListIndex();
+		Piece last = pieceLists[color][--pieceCounts[color]];
+		pieceLists[color][index] = last;
+		last.setListIndex(index);
+		pieceLists[color][pieceCounts[color]] = null;
+		piece.setListIndex(-1);
+		piece.setSquare(-1);
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @param isWhite color of the pieces
+	 * @return bitboard of all pieces of the given type and color
+	 */
+	public long getBitboard(int type, boolean isWhite) {
+		return pieceBitboards[index(type, isWhite)];
+	}
+
+	/**
+	 * @param isWhite color of the pieces
+	 * @return bitboard of all squares occupied by the given color
+	 */
+	public long getOccupancy(boolean isWhite) {
+		return colorBitboards[isWhite ? 0 : 1];
+	}
+
+	/**
+	 * @return bitboard of all occupied squares
+	 */
+	public long getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return if there is a piece on the given square
+	 */
+	public boolean isOccupied(int square) {
+		return (occupied & Bitboards.bit(square)) != 0;
+	}
+
+	/**
+	 * Check if a square is attacked by any piece of the given color
+	 * @param position Position of the square
+	 * @param byWhite color of the attacking pieces
+	 * @return boolean if the square is attacked
+	 */
+	public boolean isSquareAttacked(Position position, boolean byWhite) {
+		return isSquareAttacked(Bitboards.square(position), byWhite);
+	}
+
+	/**
+	 * Check if a square is attacked by any piece of the given color. Instead of generating the moves
+	 * of all pieces, this looks outward from the square: a square is attacked by a knight if a knight
+	 * of the attacking color stands a knight jump away, and so on for every piece type.
+	 * @param square square index between 0 and 63
+	 * @param byWhite color of the attacking pieces
+	 * @return boolean if the square is attacked
+	 */
+	public boolean isSquareAttacked(int square, boolean byWhite) {
+		return isSquareAttacked(square, byWhite, occupied);
+	}
+
+	/**
+	 * Check if a square is attacked by any piece of the given color with the sliding pieces being
+	 * blocked by the given occupancy
+	 */
+	private boolean isSquareAttacked(int square, boolean byWhite, long occupied) {
+		if ((Bitboards.pawnAttacks(square, !byWhite) & getBitboard(Bitboards.PAWN, byWhite)) != 0
+				|| (Bitboards.knightAttacks(square) & getBitboard(Bitboards.KNIGHT, byWhite)) != 0
+				|| (Bitboards.kingAttacks(square) & getBitboard(Bitboards.KING, byWhite)) != 0) {
+			return true;
+		}
+		long queens = getBitboard(Bitboards.QUEEN, byWhite);
+		long diagonal = getBitboard(Bitboards.BISHOP, byWhite) | queens;
+		if (diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0) {
+			return true;
+		}
+		long straight = getBitboard(Bitboards.ROOK, byWhite) | queens;
+		return straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0;
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @param byWhite color of the attacking pieces
+	 * @param occupied bitboard of the occupied squares blocking sliding pieces
+	 * @return bitboard of all pieces of the given color attacking the square
+	 */
+	public long getAttackers(int square, boolean byWhite, long occupied) {
+		long queens = getBitboard(Bitboards.QUEEN, byWhite);
+		return (Bitboards.pawnAttacks(square, !byWhite) & getBitboard(Bitboards.PAWN, byWhite))
+				| (Bitboards.knightAttacks(square) & getBitboard(Bitboards.KNIGHT, byWhite))
+				| (Bitboards.kingAttacks(square) & getBitboard(Bitboards.KING, byWhite))
+				| (Bitboards.bishopAttacks(square, occupied) & (getBitboard(Bitboards.BISHOP, byWhite) | queens))
+				| (Bitboards.rookAttacks(square, occupied) & (getBitboard(Bitboards.ROOK, byWhite) | queens));
+	}
+
+	/**
+	 * @param isWhite color of the King
+	 * @return bitboard of the pieces giving check to the King of the given color
+	 */
+	public long getCheckers(boolean isWhite) {
+		updateLegalInfo(isWhite);
+		return checkers[isWhite ? 0 : 1];
+	}
+
+	/**
+	 * @param isWhite color of the pinned pieces
+	 * @return bitboard of the pieces of the given color that are pinned to their King
+	 */
+	public long getPinned(boolean isWhite) {
+		updateLegalInfo(isWhite);
+		return pinned[isWhite ? 0 : 1];
+	}
+
+	/**
+	 * Get the squares a piece other than the King may move to without leaving its King in check.
+	 * If the King is in double check this is empty, if it is in check only capturing the checking
+	 * piece or blocking the check is allowed, and a pinned piece may only move along the pin.
+	 * @param square square index of the piece
+	 * @param isWhite color of the piece
+	 * @return bitboard of the allowed destination squares
+	 */
+	public long getLegalMask(int square, boolean isWhite) {
+		updateLegalInfo(isWhite);
+		int color = isWhite ? 0 : 1;
+		long king = getBitboard(Bitboards.KING, isWhite);
+		if (king == 0) {
+			return ~0L;
+		}
+		int kingSquare = Long.numberOfTrailingZeros(king);
+		long mask = ~0L;
+		long check = checkers[color];
+		if (check != 0) {
+			if ((check & (check - 1)) != 0) {
+				return 0L;
+			}
+			mask = check | Bitboards.between(kingSquare, Long.numberOfTrailingZeros(check));
+		}
+		if ((pinned[color] & Bitboards.bit(square)) != 0) {
+			mask &= Bitboards.line(kingSquare, square);
+		}
+		return mask;
+	}
+
+	/**
+	 * Remove all squares from the targets of a King on which it would be attacked
+	 * @param square square index of the King
+	 * @param targets bitboard of the destination squares
+	 * @param isWhite color of the King
+	 * @return bitboard of the safe destination squares
+	 */
+	public long getSafeKingTargets(int square, long targets, boolean isWhite) {
+		// the King must not shield the squares behind it from a sliding attacker
+		long withoutKing = occupied & ~Bitboards.bit(square);
+		long safe = 0L;
+		while (targets != 0) {
+			int target = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			if (!isSquareAttacked(target, !isWhite, withoutKing)) {
+				safe |= Bitboards.bit(target);
+			}
+		}
+		return safe;
+	}
+
+	/**
+	 * Check if an enpassant capture leaves the own King in check. Enpassant removes two pieces from
+	 * the same row, which can uncover an attack that is not covered by the pin detection.
+	 * @param origin square index of the capturing Pawn
+	 * @param destination square index the capturing Pawn moves to
+	 * @param capture square index of the captured Pawn
+	 * @param isWhite color of the capturing Pawn
+	 * @return boolean if the capture is legal
+	 */
+	public boolean isEnpassantLegal(int origin, int destination, int capture, boolean isWhite) {
+		long king = getBitboard(Bitboards.KING, isWhite);
+		if (king == 0) {
+			return true;
+		}
+		int kingSquare = Long.numberOfTrailingZeros(king);
+		long occupiedAfter = (occupied & ~Bitboards.bit(origin) & ~Bitboards.bit(capture)) | Bitboards.bit(destination);
+		long queens = getBitboard(Bitboards.QUEEN, !isWhite);
+		return (Bitboards.bishopAttacks(kingSquare, occupiedAfter) & (getBitboard(Bitboards.BISHOP, !isWhite) | queens)) == 0
+				&& (Bitboards.rookAttacks(kingSquare, occupiedAfter) & (getBitboard(Bitboards.ROOK, !isWhite) | queens)) == 0
+				&& (Bitboards.knightAttacks(kingSquare) & getBitboard(Bitboards.KNIGHT, !isWhite)) == 0
+				&& (Bitboards.pawnAttacks(kingSquare, isWhite) & getBitboard(Bitboards.PAWN, !isWhite) & ~Bitboards.bit(capture)) == 0;
+	}
+
+	/**
+	 * Compute the checking and the pinned pieces once per position and color
+	 */
+	private void updateLegalInfo(boolean isWhite) {
+		int color = isWhite ? 0 : 1;
+		if (legalInfoValid[color]) {
+			return;
+		}
+		long king = getBitboard(Bitboards.KING, isWhite);
+		checkers[color] = 0L;
+		pinned[color] = 0L;
+		if (king != 0) {
+			int kingSquare = Long.numberOfTrailingZeros(king);
+			checkers[color] = getAttackers(kingSquare, !isWhite, occupied);
+
+			long queens = getBitboard(Bitboards.QUEEN, !isWhite);
+			long snipers = (Bitboards.rookAttacks(kingSquare, 0L) & (getBitboard(Bitboards.ROOK, !isWhite) | queens))
+					| (Bitboards.bishopAttacks(kingSquare, 0L) & (getBitboard(Bitboards.BISHOP, !isWhite) | queens));
+			while (snipers != 0) {
+				int sniper = Long.numberOfTrailingZeros(snipers);
+				snipers &= snipers - 1;
+				long blockers = Bitboards.between(kingSquare, sniper) & occupied;
+				if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & getOccupancy(isWhite)) != 0) {
+					pinned[color] |= blockers;
+				}
+			}
+		}
+		legalInfoValid[color] = true;
+	}
+
+	private static int index(int type, boolean isWhite) {
+		return type << 1 | (isWhite ? 0 : 1);
+	}
+
+	private void setBit(int square, Piece piece) {
+		long bit = Bitboards.bit(square);
+		pieceBitboards[index(piece.getType(), piece.isWhite())] |= bit;
+		colorBitboards[piece.isWhite() ? 0 : 1] |= bit;
+		occupied |= bit;
+		zobristKey ^= Zobrist.piece(piece.getType(), piece.isWhite(), square);
+		midgameScore += PieceSquareTables.midgame(piece.getType(), piece.isWhite(), square);
+		endgameScore += PieceSquareTables.endgame(piece.getType(), piece.isWhite(), square);
+		phase += PieceSquareTables.phase(piece.getType());
+		if (piece.getType() == Bitboards.PAWN) {
+			pawnKey ^= Zobrist.piece(Bitboards.PAWN, piece.isWhite(), square);
+		}
+		legalInfoValid[0] = false;
+		legalInfoValid[1] = false;
+		modificationCount++;
+		if (piece.getType() == Bitboards.ROOK || piece.getType() == Bitboards.KING) {
+			updateCastlingRights();
+		}
+	}
+
+	private void clearBit(int square, Piece piece) {
+		long bit = ~Bitboards.bit(square);
+		pieceBitboards[index(piece.getType(), piece.isWhite())] &= bit;
+		colorBitboards[piece.isWhite() ? 0 : 1] &= bit;
+		occupied &= bit;
+		zobristKey ^= Zobrist.piece(piece.getType(), piece.isWhite(), square);
+		midgameScore -= PieceSquareTables.midgame(piece.getType(), piece.isWhite(), square);
+		endgameScore -= PieceSquareTables.endgame(piece.getType(), piece.isWhite(), square);
+		phase -= PieceSquareTables.phase(piece.getType());
+		if (piece.getType() == Bitboards.PAWN) {
+			pawnKey ^= Zobrist.piece(Bitboards.PAWN, piece.isWhite(), square);
+		}
+		legalInfoValid[0] = false;
+		legalInfoValid[1] = false;
+		modificationCount++;
+		if (piece.getType() == Bitboards.ROOK || piece.getType() == Bitboards.KING) {
+			updateCastlingRights();
+		}
+	}
+
+	/**
+	 * @return the Zobrist key of the current position
+	 * @see Zobrist
+	 */
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	/**
+	 * @return the Zobrist key of the Pawns of both sides, which is the same for all positions with
+	 *         the same pawn structure
+	 */
+	public long getPawnKey() {
+		return pawnKey;
+	}
+
+	/**
+	 * Compute the Zobrist key of the current position from scratch. The result is always equal to
+	 * {@link #getZobristKey()}, which is updated incrementally.
+	 * @return the Zobrist key of the current position
+	 */
+	public long computeZobristKey() {
+		long key = 0L;
+		for (int square = 0; square < 64; square++) {
+			Piece piece = squares[square];
+			if (piece != null) {
+				key ^= Zobrist.piece(piece.getType(), piece.isWhite(), square);
+			}
+		}
+		if (!whiteToMove) {
+			key ^= Zobrist.blackToMove();
+		}
+		return key ^ Zobrist.castling(computeCastlingRights()) ^ computeEnpassantKey(enpassantPawn);
+	}
+
+	/**
+	 * @return material and piece-square score for the middlegame from the view of white
+	 * @see PieceSquareTables
+	 */
+	public int getMidgameScore() {
+		return midgameScore;
+	}
+
+	/**
+	 * @return material and piece-square score for the endgame from the view of white
+	 * @see PieceSquareTables
+	 */
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+
+	/**
+	 * @return phase of the position, from {@link PieceSquareTables#MAX_PHASE} with all pieces to 0 with
+	 *         only Kings and Pawns
+	 */
+	public int getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Compute the tapered material and piece-square score from scratch. The result is always equal
+	 * to the score tapered from {@link #getMidgameScore()}, {@link #getEndgameScore()} and
+	 * {@link #getPhase()}, which are updated incrementally.
+	 * @return the tapered score from the view of white
+	 */
+	public int computeScore() {
+		int midgame = 0;
+		int endgame = 0;
+		int totalPhase = 0;
+		for (int square = 0; square < 64; square++) {
+			Piece piece = squares[square];
+			if (piece != null) {
+				midgame += PieceSquareTables.midgame(piece.getType(), piece.isWhite(), square);
+				endgame += PieceSquareTables.endgame(piece.getType(), piece.isWhite(), square);
+				totalPhase += PieceSquareTables.phase(piece.getType());
+			}
+		}
+		return PieceSquareTables.taper(midgame, endgame, totalPhase);
+	}
+
+	/**
+	 * Update the castling rights in the Zobrist key after a King or a Rook has moved, has been
+	 * captured or has changed its castling status
+	 */
+	public void updateCastlingRights() {
+		int rights = computeCastlingRights();
+		zobristKey ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+		castlingRights = rights;
+		modificationCount++;
+	}
+
+	/**
+	 * Mark the cached data of the current position as outdated after a piece has changed its
+	 * castling or enpassant status
+	 */
+	public void invalidate() {
+		modificationCount++;
+	}
+
+	/**
+	 * @return counter incremented with every change of the position
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * @return the castling rights of both sides as defined in {@link Zobrist}
+	 */
+	private int computeCastlingRights() {
+		int rights = 0;
+		if (canCastle(kingWhite, 0)) {
+			rights |= Zobrist.WHITE_SHORT;
+		}
+		if (canCastle(kingWhite, 7)) {
+			rights |= Zobrist.WHITE_LONG;
+		}
+		if (canCastle(kingBlack, 0)) {
+			rights |= Zobrist.BLACK_SHORT;
+		}
+		if (canCastle(kingBlack, 7)) {
+			rights |= Zobrist.BLACK_LONG;
+		}
+		return rights;
+	}
+
+	/**
+	 * @return if the King and the Rook in the given corner of its first row have not moved yet
+	 */
+	private boolean canCastle(King king, int rookX) {
+		if (king == null || !king.isCastling()) {
+			return false;
+		}
+		Piece rook = getPiece(Position.of(rookX, king.isWhite() ? 0 : 7));
+		return rook instanceof Rook && rook.isWhite() == king.isWhite() && ((Rook) rook).isCastling();
+	}
+
+	/**
+	 * @param pawn Pawn that has just moved two squares or null
+	 * @return the enpassant key, which is only included if an enemy Pawn can actually capture
+	 */
+	private long computeEnpassantKey(Pawn pawn) {
+		if (pawn == null) {
+			return 0L;
+		}
+		Position position = getPosition(pawn);
+		int skipped = Bitboards.square(position.getX(), position.getY() + (pawn.isWhite() ? -1 : 1));
+		if ((Bitboards.pawnAttacks(skipped, pawn.isWhite()) & getBitboard(Bitboards.PAWN, !pawn.isWhite())) == 0) {
+			return 0L;
+		}
+		return Zobrist.enpassant(position.getX());
+	}
+
+	private void setEnpassantPawn(Pawn pawn) {
+		long key = computeEnpassantKey(pawn);
+		zobristKey ^= enpassantKey ^ key;
+		enpassantKey = key;
+		enpassantPawn = pawn;
+		modificationCount++;
+	}
+
+	private void setWhiteToMove(boolean whiteToMove) {
+		if (this.whiteToMove != whiteToMove) {
+			zobristKey ^= Zobrist.blackToMove();
+			this.whiteToMove = whiteToMove;
+			modificationCount++;
+		}
+	}
+
+	/**
+	 * @return true if white is to move, false if black is to move
+	 */
+	public boolean isWhiteToMove() {
+		return whiteToMove;
+	}
+
+	/**
+	 * Make a move on the Board and remember everything needed to take it back with {@link #unmakeMove()}
+	 * @param move Move to be made
+	 */
+	public void makeMove(Move move) {
+		log.trace("Making move on board");
+		makeMove(Moves.fromMove(move, this));
+	}
+
+	/**
+	 * Pass the turn to the other side without moving a piece, e.g. for the null-move pruning of a
+	 * search. Only the side to move and the enpassant status change. It is taken back with
+	 * {@link #unmakeMove()} like any other move and must not be made while in check.
+	 */
+	public void makeNullMove() {
+		log.trace("Making null move on board");
+		pushState();
+		setWhiteToMove(!whiteToMove);
+		halfmoveClock++;
+		if (whiteToMove) {
+			fullmoveNumber++;
+		}
+	}
+
+	/**
+	 * Put the state of the current position on the history and clear the enpassant status, which
+	 * only lasts for one move
+	 * @return the entry to fill with the state of the moving pieces
+	 */
+	private MoveState pushState() {
+		if (historySize == history.length) {
+			history = Arrays.copyOf(history, historySize * 2);
+		}
+		MoveState state = history[historySize];
+		if (state == null) {
+			state = new MoveState();
+			history[historySize] = state;
+		}
+		historySize++;
+
+		state.enpassantPawn = enpassantPawn;
+		state.whiteToMove = whiteToMove;
+		state.halfmoveClock = halfmoveClock;
+		state.fullmoveNumber = fullmoveNumber;
+		state.zobristKey = zobristKey;
+
+		if (enpassantPawn != null) {
+			enpassantPawn.setEnpassant(false);
+			setEnpassantPawn(null);
+		}
+		return state;
+	}
+
+	/**
+	 * Make an encoded move on the Board and remember everything needed to take it back with
+	 * {@link #unmakeMove()}. The pieces are moved in the mailbox and the bitboards directly, so no
+	 * move object is created.
+	 * @param move encoded move
+	 * @see Moves
+	 */
+	public void makeMove(int move) {
+		int from = Moves.getFrom(move);
+		int to = Moves.getTo(move);
+		int flags = Moves.getFlags(move);
+		Piece piece = squares[from];
+		MoveState state = pushState();
+		state.piece = piece;
+		state.origin = Position.of(from);
+		int captureSquare = flags == Moves.ENPASSANT ? Bitboards.square(Bitboards.getX(to), Bitboards.getY(from)) : to;
+		state.capturePosition = Position.of(captureSquare);
+		state.captured = squares[captureSquare];
+		state.pieceFlag = getFlag(piece);
+
+		if (state.captured != null) {
+			remove(captureSquare);
+		}
+		if (flags == Moves.CASTLING) {
+			int y = Bitboards.getY(from);
+			int rookFrom = Bitboards.square(Bitboards.getX(to) == 1 ? 0 : 7, y);
+			Rook rook = (Rook) squares[rookFrom];
+			state.rook = rook;
+			state.rookOrigin = Position.of(rookFrom);
+			state.rookFlag = rook.isCastling();
+			move(rookFrom, Bitboards.square(Bitboards.getX(to) == 1 ? 2 : 4, y), rook);
+			rook.setCastling(false);
+		}
+		if ((flags & Moves.PROMOTION) != 0) {
+			remove(from);
+			Piece promoted = switch (Moves.getPromotionType(move)) {
+				case Bitboards.KNIGHT -> new Knight(this, piece.isWhite());
+				case Bitboards.BISHOP -> new Bishop(this, piece.isWhite());
+				case Bitboards.ROOK -> new Rook(this, piece.isWhite());
+				default -> new Queen(this, piece.isWhite());
+			};
+			place(to, promoted);
+			setBit(to, promoted);
+			state.promoted = promoted;
+		} else {
+			move(from, to, piece);
+		}
+		setFlag(piece, false);
+
+		if (flags == Moves.DOUBLE_PUSH && piece instanceof Pawn pawn) {
+			pawn.setEnpassant(true);
+			setEnpassantPawn(pawn);
+		}
+		setWhiteToMove(!piece.isWhite());
+		halfmoveClock = piece instanceof Pawn || state.captured != null ? 0 : halfmoveClock + 1;
+		if (!piece.isWhite()) {
+			fullmoveNumber++;
+		}
+	}
+
+	/**
+	 * Move a piece from one empty square to another in the mailbox and the bitboards
+	 */
+	private void move(int from, int to, Piece piece) {
+		squares[from] = null;
+		clearBit(from, piece);
+		squares[to] = piece;
+		piece.setSquare(to);
+		setBit(to, piece);
+	}
+
+	/**
+	 * Remove the piece on a square from the mailbox, its piece list and the bitboards
+	 */
+	private void remove(int square) {
+		Piece piece = squares[square];
+		squares[square] = null;
+		clearBit(square, piece);
+		unlist(piece);
+	}
+
+	/**
+	 * Take back the last move made with {@link #makeMove(int)} or {@link #makeNullMove()}, restoring
+	 * captured pieces, castling and enpassant status
+	 */
+	public void unmakeMove() {
+		log.trace("Unmaking move on board");
+		if (historySize == 0) {
+			throw new IllegalStateException("There is no move to unmake!");
+		}
+		MoveState state = history[--historySize];
+
+		if (state.piece != null) {
+			Piece moved = state.promoted != null ? state.promoted : state.piece;
+			boardMapRemove(getPosition(moved));
+			if (state.rook != null) {
+				boardMapRemove(getPosition(state.rook));
+				boardMapAdd(state.rookOrigin, state.rook);
+				state.rook.setCastling(state.rookFlag);
+			}
+			boardMapAdd(state.origin, state.piece);
+			setFlag(state.piece, state.pieceFlag);
+			if (state.captured != null) {
+				boardMapAdd(state.capturePosition, state.captured);
+			}
+		}
+
+		if (state.enpassantPawn != null) {
+			state.enpassantPawn.setEnpassant(true);
+		}
+		setEnpassantPawn(state.enpassantPawn);
+		setWhiteToMove(state.whiteToMove);
+		halfmoveClock = state.halfmoveClock;
+		fullmoveNumber = state.fullmoveNumber;
+
+		state.piece = null;
+		state.captured = null;
+		state.rook = null;
+		state.promoted = null;
+		state.enpassantPawn = null;
+	}
+
+	/**
+	 * @return the castling status of Kings and Rooks or the enpassant status of Pawns
+	 */
+	private static boolean getFlag(Piece piece) {
+		if (piece instanceof King king) {
+			return king.isCastling();
+		} else if (piece instanceof Rook rook) {
+			return rook.isCastling();
+		} else if (piece instanceof Pawn pawn) {
+			return pawn.isEnpassant();
+		}
+		return false;
+	}
+
+	private static void setFlag(Piece piece, boolean flag) {
+		if (piece instanceof King king) {
+			king.setCastling(flag);
+		} else if (piece instanceof Rook rook) {
+			rook.setCastling(flag);
+		} else if (piece instanceof Pawn pawn) {
+			pawn.setEnpassant(flag);
+		}
+	}
+
+	/**
+	 * Get all legal moves of one color. The moves are generated once and cached until the position
+	 * changes, so repeated queries within one ply are free.
+	 * @param isWhite color of the pieces to move
+	 * @return unmodifiable list of all legal moves
+	 */
+	public List<Move> getLegalMoves(boolean isWhite) {
+		return Collections.unmodifiableList(Arrays.asList(getLegalMoveArray(isWhite)));
+	}
+
+	/**
+	 * Get the legal moves of a single piece from the cached legal moves of its color
+	 * @param piece Piece to move
+	 * @return array of the legal moves of the Piece
+	 */
+	public Move[] getLegalMoves(Piece piece) {
+		Position position = getPosition(piece);
+		if (position == null) {
+			return new Move[0];
+		}
+		return Arrays.stream(getLegalMoveArray(piece.isWhite())).filter(move -> move.getOrigin().equals(position)).toArray(Move[]::new);
+	}
+
+	/**
+	 * Get all legal moves of one color encoded. The list is cached until the position changes and
+	 * must not be modified.
+	 * @param isWhite color of the pieces to move
+	 * @return list of all legal moves
+	 * @see Moves
+	 */
+	public MoveList getLegalMoveList(boolean isWhite) {
+		int color = isWhite ? 0 : 1;
+		if (legalMovesModificationCount[color] != modificationCount) {
+			MoveList moves = legalMoveLists[color];
+			moves.clear();
+			generateLegalMoves(isWhite, moves);
+			legalMoves[color] = null;
+			legalMovesModificationCount[color] = modificationCount;
+		}
+		return legalMoveLists[color];
+	}
+
+	private Move[] getLegalMoveArray(boolean isWhite) {
+		MoveList moves = getLegalMoveList(isWhite);
+		int color = isWhite ? 0 : 1;
+		if (legalMoves[color] == null) {
+			legalMoves[color] = moves.toMoves();
+		}
+		return legalMoves[color];
+	}
+
+	/**
+	 * Check if one color has at least one legal move. Instead of generating all moves this stops at
+	 * the first piece with a legal move and tries the most likely candidates first: the King, and if
+	 * the King is in check, the pieces that can capture the checking piece.
+	 * @param isWhite color of the pieces to move
+	 * @return boolean if there is a legal move
+	 */
+	public boolean hasAnyLegalMove(boolean isWhite) {
+		int color = isWhite ? 0 : 1;
+		if (legalMovesModificationCount[color] == modificationCount) {
+			return !legalMoveLists[color].isEmpty();
+		}
+		King king = isWhite ? kingWhite : kingBlack;
+		if (king != null && getPosition(king) != null && hasLegalMove(king)) {
+			return true;
+		}
+		long check = getCheckers(isWhite);
+		if (check != 0) {
+			if ((check & (check - 1)) != 0) {
+				// only the King can escape a double check
+				return false;
+			}
+			long capturers = getAttackers(Long.numberOfTrailingZeros(check), isWhite, occupied) & ~getBitboard(Bitboards.KING, isWhite);
+			while (capturers != 0) {
+				int square = Long.numberOfTrailingZeros(capturers);
+				capturers &= capturers - 1;
+				if (hasLegalMove(getPiece(square))) {
+					return true;
+				}
+			}
+		}
+		Piece[] pieces = pieceLists[isWhite ? 0 : 1];
+		for (int i = 0; i < pieceCounts[isWhite ? 0 : 1]; i++) {
+			if (pieces[i] != king && hasLegalMove(pieces[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasLegalMove(Piece piece) {
+		anyLegalMove.clear();
+		piece.generateMoves(anyLegalMove, true);
+		return !anyLegalMove.isEmpty();
+	}
+
+	/**
+	 * Add all legal moves of one color encoded to a list
+	 * @param isWhite color of the pieces to move
+	 * @param moves list to add the moves to
+	 * @see Moves
+	 */
+	public void generateLegalMoves(boolean isWhite, MoveList moves) {
+		Piece[] pieces = pieceLists[isWhite ? 0 : 1];
+		for (int i = 0; i < pieceCounts[isWhite ? 0 : 1]; i++) {
+			pieces[i].generateMoves(moves, true);
+		}
+	}
+
+	/**
+	 * Check if the side to move is stalemated: it is not in check but has no legal move
+	 * @return boolean stalemate
+	 */
+	public boolean isStalemate() {
+		return getCheckers(whiteToMove) == 0 && !hasAnyLegalMove(whiteToMove);
+	}
+
+	/**
+	 * Check if the current position has occurred for the third time. The Zobrist keys of the previous
+	 * positions are kept on the move history, and only the positions since the last capture or Pawn
+	 * move with the same side to move need to be compared.
+	 * @return boolean threefold repetition
+	 */
+	public boolean isThreefoldRepetition() {
+		int repetitions = 0;
+		int oldest = Math.max(0, historySize - halfmoveClock);
+		for (int i = historySize - 2; i >= oldest; i -= 2) {
+			if (history[i].zobristKey == zobristKey && ++repetitions == 2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the Zobrist keys of the earlier positions that the current position can still repeat, which
+	 * are the positions since the last capture or Pawn move, e.g. for a search on a copy of the Board
+	 * @return the keys from the oldest to the position before the last move
+	 */
+	public long[] getRepetitionKeys() {
+		int oldest = Math.max(0, historySize - halfmoveClock);
+		long[] keys = new long[historySize - oldest];
+		for (int i = oldest; i < historySize; i++) {
+			keys[i - oldest] = history[i].zobristKey;
+		}
+		return keys;
+	}
+
+	/**
+	 * @return if fifty moves of each side have been made without a capture or a Pawn move
+	 */
+	public boolean isFiftyMoveRule() {
+		return halfmoveClock >= 100;
+	}
+
+	/**
+	 * Check if neither side can possibly checkmate: only Kings are left, a single Knight or Bishop, or
+	 * Bishops that all stand on squares of the same color
+	 * @return boolean insufficient material
+	 */
+	public boolean isInsufficientMaterial() {
+		long heavy = pieceBitboards[index(Bitboards.PAWN, true)] | pieceBitboards[index(Bitboards.PAWN, false)]
+				| pieceBitboards[index(Bitboards.ROOK, true)] | pieceBitboards[index(Bitboards.ROOK, false)]
+				| pieceBitboards[index(Bitboards.QUEEN, true)] | pieceBitboards[index(Bitboards.QUEEN, false)];
+		if (heavy != 0) {
+			return false;
+		}
+		long knights = pieceBitboards[index(Bitboards.KNIGHT, true)] | pieceBitboards[index(Bitboards.KNIGHT, false)];
+		long bishops = pieceBitboards[index(Bitboards.BISHOP, true)] | pieceBitboards[index(Bitboards.BISHOP, false)];
+		if (Long.bitCount(knights | bishops) <= 1) {
+			return true;
+		}
+		return knights == 0 && ((bishops & DARK_SQUARES) == 0 || (bishops & ~DARK_SQUARES) == 0);
+	}
+
+	/**
+	 * Check if the game is drawn by the fifty-move rule, insufficient material, threefold repetition
+	 * or stalemate. The cheap checks come first, and with the fifty-move rule checked before the
+	 * repetition at most fifty earlier positions are compared.
+	 * @return the reason of the draw or null if the game is not drawn
+	 */
+	public String getDrawReason() {
+		if (isFiftyMoveRule()) {
+			return "Fifty-move rule";
+		} else if (isInsufficientMaterial()) {
+			return "Insufficient material";
+		} else if (isThreefoldRepetition()) {
+			return "Threefold repetition";
+		} else if (isStalemate()) {
+			return "Stalemate";
+		}
+		return null;
 	}
 
 	/**
@@ -172,20 +1512,34 @@ public class Board {
 	 */
 	public boolean isMoveValid(Move move){
 		log.trace("Checking move validity");
-		Piece testPiece = board.get(move.getOrigin());
-		Move[] moves = testPiece.getMoves();
+		if (!isOnBoard(move.getOrigin()) || !isOnBoard(move.getDestination())) {
+			return false;
+		}
+		Piece testPiece = getPiece(move.getOrigin());
+		if (testPiece == null || (getOccupancy(testPiece.isWhite()) & Bitboards.bit(Bitboards.square(move.getDestination()))) != 0) {
+			return false;
+		}
+		return Arrays.stream(getLegalMoveArray(testPiece.isWhite())).anyMatch(move::equals);
+	}
 
-		return Arrays.stream(moves).parallel().anyMatch(move::equals);
+	/**
+	 * @return if the position is not null and lies on the Board, e.g. for moves received from a client
+	 */
+	private static boolean isOnBoard(Position position) {
+		return position != null && position.getX() >= 0 && position.getX() < 8 && position.getY() >= 0 && position.getY() < 8;
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder out = new StringBuilder();
-		for (Map.Entry<Position, Piece> entry : board.entrySet()) {
-			out.append(entry.getKey());
-			out.append(" | ");
-			out.append(entry.getValue());
-			out.append("\n");
+		// row by row, which is the order the former HashMap of the board iterated its Positions in
+		for (int square = 0; square < 64; square++) {
+			if (squares[square] != null) {
+				out.append(Position.of(square));
+				out.append(" | ");
+				out.append(squares[square]);
+				out.append("\n");
+			}
 		}
 		return out.toString();
 	}
@@ -195,6 +1549,7 @@ public class Board {
 	 */
 	public void setKingBlack(King kingBlack) {
 		this.kingBlack = kingBlack;
+		updateCastlingRights();
 	}
 
 	/**
@@ -202,6 +1557,7 @@ public class Board {
 	 */
 	public void setKingWhite(King kingWhite) {
 		this.kingWhite = kingWhite;
+		updateCastlingRights();
 	}
 
 	/**
@@ -209,6 +1565,29 @@ public class Board {
 	 * @param position Position of the Piece to remove
 	 */
 	public void boardMapRemove(Position position) {
-		board.remove(position);
+		int square = position.getSquare();
+		if (squares[square] != null) {
+			remove(square);
+		}
+	}
+
+	/**
+	 * Everything that is needed to undo a move
+	 */
+	private static final class MoveState {
+		private Piece piece;
+		private Position origin;
+		private boolean pieceFlag;
+		private Piece captured;
+		private Position capturePosition;
+		private Rook rook;
+		private Position rookOrigin;
+		private boolean rookFlag;
+		private Piece promoted;
+		private Pawn enpassantPawn;
+		private boolean whiteToMove;
+		private int halfmoveClock;
+		private int fullmoveNumber;
+		private long zobristKey;
 	}
 }
@@ -0,0 +1,232 @@
+package com.gameofjess.javachess.chesslogic;
+
+public final class BoardSnapshot {
+	/**
+	 * Immutable position of a game, safe to share between threads without locking or copying.
+	 * A snapshot only holds the bitboards and the state of the game, not the Piece objects of a Board.
+	 * Making a move with {@link #play(int)} creates a new snapshot and leaves this one untouched; the
+	 * new snapshot links back to this one, so a game is a chain of snapshots sharing their history.
+	 */
+
+	/**
+	 * Castling rights lost when a piece moves from or to a square, which are the starting squares
+	 * of the Kings and the Rooks
+	 */
+	private static final int[] CASTLING_MASKS = new int[64];
+
+	static {
+		CASTLING_MASKS[Bitboards.square(3, 0)] = Zobrist.WHITE_SHORT | Zobrist.WHITE_LONG;
+		CASTLING_MASKS[Bitboards.square(0, 0)] = Zobrist.WHITE_SHORT;
+		CASTLING_MASKS[Bitboards.square(7, 0)] = Zobrist.WHITE_LONG;
+		CASTLING_MASKS[Bitboards.square(3, 7)] = Zobrist.BLACK_SHORT | Zobrist.BLACK_LONG;
+		CASTLING_MASKS[Bitboards.square(0, 7)] = Zobrist.BLACK_SHORT;
+		CASTLING_MASKS[Bitboards.square(7, 7)] = Zobrist.BLACK_LONG;
+	}
+
+	private final long[] pieceBitboards;
+	private final long[] colorBitboards;
+	private final boolean whiteToMove;
+	private final int castlingRights;
+	private final int enpassantSquare;
+	private final long enpassantKey;
+	private final int halfmoveClock;
+	private final int fullmoveNumber;
+	private final long zobristKey;
+	private final BoardSnapshot previous;
+
+	/**
+	 * Constructor, the bitboards must not be changed afterwards
+	 */
+	BoardSnapshot(long[] pieceBitboards, boolean whiteToMove, int castlingRights, int enpassantSquare, long enpassantKey,
+			int halfmoveClock, int fullmoveNumber, long zobristKey, BoardSnapshot previous) {
+		this.pieceBitboards = pieceBitboards;
+		this.colorBitboards = new long[2];
+		for (int i = 0; i < pieceBitboards.length; i++) {
+			colorBitboards[i & 1] |= pieceBitboards[i];
+		}
+		this.whiteToMove = whiteToMove;
+		this.castlingRights = castlingRights;
+		this.enpassantSquare = enpassantSquare;
+		this.enpassantKey = enpassantKey;
+		this.halfmoveClock = halfmoveClock;
+		this.fullmoveNumber = fullmoveNumber;
+		this.zobristKey = zobristKey;
+		this.previous = previous;
+	}
+
+	/**
+	 * Create the snapshot after a move. The move is not checked for legality.
+	 * @param move encoded move that is legal in this position
+	 * @return snapshot of the position after the move, linked back to this snapshot
+	 * @throws IllegalArgumentException if there is no piece of the side to move on the origin of the move
+	 * @see Moves
+	 */
+	public BoardSnapshot play(int move) {
+		int from = Moves.getFrom(move);
+		int to = Moves.getTo(move);
+		int flags = Moves.getFlags(move);
+		int type = getPieceType(from);
+		if (type < 0 || isWhite(from) != whiteToMove) {
+			throw new IllegalArgumentException("No piece to move on " + Position.of(from).toNotation());
+		}
+		long[] bitboards = pieceBitboards.clone();
+		long key = zobristKey ^ Zobrist.blackToMove() ^ enpassantKey;
+
+		int captureSquare = flags == Moves.ENPASSANT ? to + (whiteToMove ? -8 : 8) : to;
+		int captured = getPieceType(captureSquare);
+		if (captured >= 0) {
+			bitboards[index(captured, !whiteToMove)] &= ~Bitboards.bit(captureSquare);
+			key ^= Zobrist.piece(captured, !whiteToMove, captureSquare);
+		}
+
+		int placed = Moves.isPromotion(move) ? Moves.getPromotionType(move) : type;
+		bitboards[index(type, whiteToMove)] &= ~Bitboards.bit(from);
+		bitboards[index(placed, whiteToMove)] |= Bitboards.bit(to);
+		key ^= Zobrist.piece(type, whiteToMove, from) ^ Zobrist.piece(placed, whiteToMove, to);
+
+		if (flags == Moves.CASTLING) {
+			int y = Bitboards.getY(from);
+			int rookFrom = Bitboards.square(Bitboards.getX(to) == 1 ? 0 : 7, y);
+			int rookTo = Bitboards.square(Bitboards.getX(to) == 1 ? 2 : 4, y);
+			bitboards[index(Bitboards.ROOK, whiteToMove)] ^= Bitboards.bit(rookFrom) | Bitboards.bit(rookTo);
+			key ^= Zobrist.piece(Bitboards.ROOK, whiteToMove, rookFrom) ^ Zobrist.piece(Bitboards.ROOK, whiteToMove, rookTo);
+		}
+
+		int rights = castlingRights & ~CASTLING_MASKS[from] & ~CASTLING_MASKS[to];
+		key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+
+		int skipped = -1;
+		long skippedKey = 0L;
+		if (flags == Moves.DOUBLE_PUSH) {
+			skipped = (from + to) >>> 1;
+			// as on the Board, the enpassant file only counts if an enemy Pawn can capture
+			if ((Bitboards.pawnAttacks(skipped, whiteToMove) & bitboards[index(Bitboards.PAWN, !whiteToMove)]) != 0) {
+				skippedKey = Zobrist.enpassant(Bitboards.getX(to));
+				key ^= skippedKey;
+			}
+		}
+
+		int halfmoves = type == Bitboards.PAWN || captured >= 0 ? 0 : halfmoveClock + 1;
+		int fullmoves = whiteToMove ? fullmoveNumber : fullmoveNumber + 1;
+		return new BoardSnapshot(bitboards, !whiteToMove, rights, skipped, skippedKey, halfmoves, fullmoves, key, this);
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return piece type as defined in {@link Bitboards} or -1 if the square is empty
+	 */
+	public int getPieceType(int square) {
+		long bit = Bitboards.bit(square);
+		for (int i = 0; i < pieceBitboards.length; i++) {
+			if ((pieceBitboards[i] & bit) != 0) {
+				return i >> 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param square square index of an occupied square
+	 * @return if the piece on the square is white
+	 */
+	public boolean isWhite(int square) {
+		return (colorBitboards[0] & Bitboards.bit(square)) != 0;
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @param isWhite color of the pieces
+	 * @return bitboard of all pieces of the given type and color
+	 */
+	public long getBitboard(int type, boolean isWhite) {
+		return pieceBitboards[index(type, isWhite)];
+	}
+
+	/**
+	 * @param isWhite color of the pieces
+	 * @return bitboard of all squares occupied by the given color
+	 */
+	public long getOccupancy(boolean isWhite) {
+		return colorBitboards[isWhite ? 0 : 1];
+	}
+
+	/**
+	 * @return bitboard of all occupied squares
+	 */
+	public long getOccupied() {
+		return colorBitboards[0] | colorBitboards[1];
+	}
+
+	/**
+	 * @return true if white is to move, false if black is to move
+	 */
+	public boolean isWhiteToMove() {
+		return whiteToMove;
+	}
+
+	/**
+	 * @return the castling rights of both sides as defined in {@link Zobrist}
+	 */
+	public int getCastlingRights() {
+		return castlingRights;
+	}
+
+	/**
+	 * @return the square skipped by the last double step of a Pawn or -1
+	 */
+	public int getEnpassantSquare() {
+		return enpassantSquare;
+	}
+
+	/**
+	 * @return half moves since the last capture or Pawn move
+	 */
+	public int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	/**
+	 * @return the number of the current full move, starting at 1
+	 */
+	public int getFullmoveNumber() {
+		return fullmoveNumber;
+	}
+
+	/**
+	 * @return the Zobrist key of the position
+	 * @see Zobrist
+	 */
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	/**
+	 * @return the snapshot before the last move or null if this snapshot was taken from a Board
+	 */
+	public BoardSnapshot getPrevious() {
+		return previous;
+	}
+
+	/**
+	 * @return the position in Forsyth-Edwards Notation
+	 */
+	public String toFen() {
+		return Board.toFen(pieceBitboards, whiteToMove, castlingRights, enpassantSquare, halfmoveClock, fullmoveNumber);
+	}
+
+	/**
+	 * @return a new mutable Board set to this position, e.g. for an analysis on another thread
+	 */
+	public Board toBoard() {
+		return Board.fromFen(toFen());
+	}
+
+	@Override
+	public String toString() {
+		return toFen();
+	}
+
+	private static int index(int type, boolean isWhite) {
+		return type << 1 | (isWhite ? 0 : 1);
+	}
+}
@@ -142,4 +142,16 @@ public class Move {
         return false;
 	}
 
+	/**
+	 * @return the move in UCI notation, e.g. e2e4 or e7e8q
+	 */
+	@Override
+	public String toString() {
+		String notation = origin.toNotation() + destination.toNotation();
+		if (promotion != null) {
+			String name = promotion.substring(promotion.lastIndexOf('.') + 1);
+			notation += name.equals("Knight") ? "n" : name.substring(0, 1).toLowerCase();
+		}
+		return notation;
+	}
 }
@@ -0,0 +1,105 @@
+package com.gameofjess.javachess.chesslogic;
+
+import java.util.Arrays;
+
+public final class MoveList {
+	/**
+	 * Reusable list of encoded moves backed by an int[], so generating moves does not create garbage
+	 * @see Moves
+	 */
+
+	/**
+	 * No legal chess position has more than 218 moves
+	 */
+	private static final int DEFAULT_CAPACITY = 256;
+
+	private int[] moves;
+	private int size;
+
+	/**
+	 * Create an empty list
+	 */
+	public MoveList() {
+		moves = new int[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * @param move encoded move to add
+	 */
+	public void add(int move) {
+		if (size == moves.length) {
+			moves = Arrays.copyOf(moves, size * 2);
+		}
+		moves[size++] = move;
+	}
+
+	/**
+	 * @param index index of the move
+	 * @return the encoded move
+	 */
+	public int get(int index) {
+		return moves[index];
+	}
+
+	/**
+	 * @param index index of the move
+	 * @param move encoded move to set
+	 */
+	public void set(int index, int move) {
+		moves[index] = move;
+	}
+
+	/**
+	 * Swap two moves, e.g. to sort the moves
+	 */
+	public void swap(int i, int j) {
+		int move = moves[i];
+		moves[i] = moves[j];
+		moves[j] = move;
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return if the list contains the move
+	 */
+	public boolean contains(int move) {
+		for (int i = 0; i < size; i++) {
+			if (moves[i] == move) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of moves
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return if the list contains no moves
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove all moves, keeping the backing array
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return the moves as move objects
+	 */
+	public Move[] toMoves() {
+		Move[] result = new Move[size];
+		for (int i = 0; i < size; i++) {
+			result[i] = Moves.toMove(moves[i]);
+		}
+		return result;
+	}
+}
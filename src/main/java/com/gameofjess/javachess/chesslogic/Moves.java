@@ -0,0 +1,159 @@
+package com.gameofjess.javachess.chesslogic;
+
+import com.gameofjess.javachess.chesslogic.pieces.Bishop;
+import com.gameofjess.javachess.chesslogic.pieces.Knight;
+import com.gameofjess.javachess.chesslogic.pieces.Queen;
+import com.gameofjess.javachess.chesslogic.pieces.Rook;
+
+public final class Moves {
+	/**
+	 * Helper Class for moves encoded in the lowest 16 bits of an int: bits 0 to 5 hold the origin square,
+	 * bits 6 to 11 the destination square and bits 12 to 15 the flags. The flag bit 4 marks captures and
+	 * the flag bit 8 promotions, whose lowest two bits select the promoted piece.
+	 * The encoded move 0 is never legal and stands for no move.
+	 */
+
+	public static final int NONE = 0;
+
+	public static final int QUIET = 0;
+	public static final int DOUBLE_PUSH = 1;
+	public static final int CASTLING = 2;
+	public static final int CAPTURE = 4;
+	public static final int ENPASSANT = 5;
+	public static final int PROMOTION = 8;
+
+	private static final String[] PROMOTION_CLASSES = {Knight.class.getName(), Bishop.class.getName(), Rook.class.getName(), Queen.class.getName()};
+
+	private Moves() {
+	}
+
+	/**
+	 * @param from square index of the origin
+	 * @param to square index of the destination
+	 * @param flags one of the flags of this class
+	 * @return the encoded move
+	 */
+	public static int encode(int from, int to, int flags) {
+		return flags << 12 | to << 6 | from;
+	}
+
+	/**
+	 * @param from square index of the origin
+	 * @param to square index of the destination
+	 * @param type piece type of the promoted piece as defined in {@link Bitboards}
+	 * @param capture if the promotion captures a piece
+	 * @return the encoded promotion
+	 */
+	public static int encodePromotion(int from, int to, int type, boolean capture) {
+		return encode(from, to, PROMOTION | (capture ? CAPTURE : 0) | (type - Bitboards.KNIGHT));
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return square index of the origin
+	 */
+	public static int getFrom(int move) {
+		return move & 0x3F;
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return square index of the destination
+	 */
+	public static int getTo(int move) {
+		return move >>> 6 & 0x3F;
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return the flags
+	 */
+	public static int getFlags(int move) {
+		return move >>> 12 & 0xF;
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return if the move captures a piece, including enpassant
+	 */
+	public static boolean isCapture(int move) {
+		return (getFlags(move) & CAPTURE) != 0;
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return if the move is a promotion
+	 */
+	public static boolean isPromotion(int move) {
+		return (getFlags(move) & PROMOTION) != 0;
+	}
+
+	/**
+	 * @param move encoded promotion
+	 * @return piece type of the promoted piece as defined in {@link Bitboards}
+	 */
+	public static int getPromotionType(int move) {
+		return (getFlags(move) & 3) + Bitboards.KNIGHT;
+	}
+
+	/**
+	 * Convert an encoded move into a move object as used by the GUI and the server
+	 * @param move encoded move
+	 * @return the move object
+	 */
+	public static Move toMove(int move) {
+		Position origin = Position.of(getFrom(move));
+		Position destination = Position.of(getTo(move));
+		int flags = getFlags(move);
+		if ((flags & PROMOTION) != 0) {
+			return new Move(origin, destination, PROMOTION_CLASSES[flags & 3]);
+		}
+		return switch (flags) {
+			case CAPTURE -> new Move(origin, destination, destination);
+			case ENPASSANT -> new Move(origin, destination, Position.of(destination.getX(), origin.getY()), true);
+			case CASTLING -> new Move(origin, destination, true, Position.of(destination.getX() == 1 ? 0 : 7, origin.getY()));
+			default -> new Move(origin, destination);
+		};
+	}
+
+	/**
+	 * Encode a move object. Whether a promotion captures a piece and whether a pawn moves two squares
+	 * is taken from the Board, as the move object does not tell.
+	 * @param move move object
+	 * @param board Board the move is made on
+	 * @return the encoded move
+	 */
+	public static int fromMove(Move move, Board board) {
+		int from = move.getOrigin().getSquare();
+		int to = move.getDestination().getSquare();
+		if (move.getPromotion() != null) {
+			for (int i = 0; i < PROMOTION_CLASSES.length; i++) {
+				if (PROMOTION_CLASSES[i].equals(move.getPromotion())) {
+					return encodePromotion(from, to, Bitboards.KNIGHT + i, board.isOccupied(to));
+				}
+			}
+			throw new IllegalArgumentException("Invalid promotion " + move.getPromotion());
+		} else if (move.getEnpassant()) {
+			return encode(from, to, ENPASSANT);
+		} else if (move.getCastling() != null) {
+			return encode(from, to, CASTLING);
+		} else if (move.getCapturePosition() != null) {
+			return encode(from, to, CAPTURE);
+		} else if (Math.abs(to - from) == 16 && ((board.getBitboard(Bitboards.PAWN, true) | board.getBitboard(Bitboards.PAWN, false)) & Bitboards.bit(from)) != 0) {
+			return encode(from, to, DOUBLE_PUSH);
+		}
+		return encode(from, to, QUIET);
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return the move in UCI notation, e.g. e2e4 or e7e8q
+	 */
+	public static String toString(int move) {
+		String notation = Position.of(getFrom(move)).toNotation() + Position.of(getTo(move)).toNotation();
+		if (isPromotion(move)) {
+			notation += "nbrq".charAt(getFlags(move) & 3);
+		}
+		return notation;
+	}
+}
@@ -0,0 +1,370 @@
+package com.gameofjess.javachess.chesslogic;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class Perft {
+	/**
+	 * Performance test of the move generation: count all leaf nodes of the game tree up to a given
+	 * depth and compare them to known node counts. Every move is made and unmade on the Board, so
+	 * castling, enpassant and promotions are covered as well.
+	 */
+	private static final Logger log = LogManager.getLogger(Perft.class);
+
+	/**
+	 * Subtrees of at most this depth are counted by a single worker in the parallel perft
+	 */
+	private static final int SEQUENTIAL_DEPTH = 4;
+
+	private Perft() {
+	}
+
+	/**
+	 * Count the leaf nodes of the game tree
+	 * @param board Board to start from, the side to move is taken from the Board
+	 * @param depth number of half moves
+	 * @return number of leaf nodes
+	 */
+	public static long perft(Board board, int depth) {
+		MoveList[] moveLists = new MoveList[Math.max(depth, 1)];
+		for (int i = 0; i < moveLists.length; i++) {
+			moveLists[i] = new MoveList();
+		}
+		return perft(board, depth, moveLists);
+	}
+
+	/**
+	 * Count the leaf nodes reusing one move list per ply
+	 */
+	private static long perft(Board board, int depth, MoveList[] moveLists) {
+		return perft(board, depth, moveLists, null);
+	}
+
+	/**
+	 * Count the leaf nodes reusing one move list per ply, looking up subtrees that have already been
+	 * counted in the table if there is one
+	 */
+	private static long perft(Board board, int depth, MoveList[] moveLists, PerftTable table) {
+		if (depth == 0) {
+			return 1;
+		}
+		if (table != null && depth > 1) {
+			long nodes = table.probe(board.getZobristKey(), depth);
+			if (nodes >= 0) {
+				return nodes;
+			}
+		}
+		MoveList moves = moveLists[depth - 1];
+		moves.clear();
+		board.generateLegalMoves(board.isWhiteToMove(), moves);
+		if (depth == 1) {
+			return moves.size();
+		}
+		long nodes = 0;
+		for (int i = 0; i < moves.size(); i++) {
+			board.makeMove(moves.get(i));
+			nodes += perft(board, depth - 1, moveLists, table);
+			board.unmakeMove();
+		}
+		if (table != null) {
+			table.store(board.getZobristKey(), depth, nodes);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Count the leaf nodes on all cores of the common pool without hashing
+	 * @param board Board to start from, which is not changed
+	 * @param depth number of half moves
+	 * @return number of leaf nodes
+	 * @see #parallelPerft(Board, int, ForkJoinPool, int)
+	 */
+	public static long parallelPerft(Board board, int depth) {
+		return parallelPerft(board, depth, ForkJoinPool.commonPool(), 0);
+	}
+
+	/**
+	 * Count the leaf nodes in parallel. The root moves, and the moves of subtrees deeper than
+	 * {@value #SEQUENTIAL_DEPTH} half moves, are split into tasks of a ForkJoinPool, so idle workers
+	 * steal the remaining subtrees of busy ones. Every task works on its own copy of the Board.
+	 * @param board Board to start from, which is not changed
+	 * @param depth number of half moves
+	 * @param pool pool to run the tasks in
+	 * @param hashMegabytes size of a table shared by all workers to count transpositions only once, 0 to disable
+	 * @return number of leaf nodes
+	 */
+	public static long parallelPerft(Board board, int depth, ForkJoinPool pool, int hashMegabytes) {
+		if (depth < 2) {
+			return perft(board, depth);
+		}
+		PerftTable table = hashMegabytes > 0 ? new PerftTable(hashMegabytes) : null;
+		return pool.invoke(new PerftTask(new Board(board), depth, table, true));
+	}
+
+	/**
+	 * Task counting the subtree below a position on its own Board
+	 */
+	private static final class PerftTask extends RecursiveTask<Long> {
+		private final Board board;
+		private final int depth;
+		private final PerftTable table;
+		private final boolean split;
+
+		private PerftTask(Board board, int depth, PerftTable table, boolean split) {
+			this.board = board;
+			this.depth = depth;
+			this.table = table;
+			this.split = split;
+		}
+
+		@Override
+		protected Long compute() {
+			if (!split) {
+				MoveList[] moveLists = new MoveList[Math.max(depth, 1)];
+				for (int i = 0; i < moveLists.length; i++) {
+					moveLists[i] = new MoveList();
+				}
+				return perft(board, depth, moveLists, table);
+			}
+			MoveList moves = new MoveList();
+			board.generateLegalMoves(board.isWhiteToMove(), moves);
+			List<PerftTask> tasks = new ArrayList<>(moves.size());
+			for (int i = 0; i < moves.size(); i++) {
+				Board child = new Board(board);
+				child.makeMove(moves.get(i));
+				tasks.add(new PerftTask(child, depth - 1, table, depth - 1 > SEQUENTIAL_DEPTH));
+			}
+			long nodes = 0;
+			for (PerftTask task : invokeAll(tasks)) {
+				nodes += task.join();
+			}
+			return nodes;
+		}
+	}
+
+	/**
+	 * Lock-free table of node counts by Zobrist key and depth, shared by the workers of a parallel
+	 * perft. Like the {@link TranspositionTable} an entry is stored as the key XOR the data and the
+	 * data, so entries torn by concurrent writes are never mistaken for hits.
+	 */
+	private static final class PerftTable {
+		private final long[] table;
+		private final int mask;
+
+		private PerftTable(int megabytes) {
+			long entries = Math.max(1L, (long) megabytes * 1024 * 1024 / (2 * Long.BYTES));
+			int size = (int) Math.min(Long.highestOneBit(entries), 1 << 28);
+			table = new long[size * 2];
+			mask = size - 1;
+		}
+
+		/**
+		 * @return the node count or -1 if the position has not been counted at this depth
+		 */
+		private long probe(long key, int depth) {
+			int index = ((int) key & mask) << 1;
+			long data = table[index + 1];
+			if ((table[index] ^ data) == key && (data & 0xFF) == depth) {
+				return data >>> 8;
+			}
+			return -1;
+		}
+
+		private void store(long key, int depth, long nodes) {
+			int index = ((int) key & mask) << 1;
+			long data = nodes << 8 | depth;
+			table[index] = key ^ data;
+			table[index + 1] = data;
+		}
+	}
+
+	/**
+	 * Count the leaf nodes below every root move. Comparing the result to another move generator
+	 * narrows down the move sequence in which both differ.
+	 * @param board Board to start from, the side to move is taken from the Board
+	 * @param depth number of half moves, at least 1
+	 * @return number of leaf nodes by root move in UCI notation
+	 */
+	public static Map<String, Long> divide(Board board, int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Depth must be at least 1");
+		}
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (Move move : board.getLegalMoves(board.isWhiteToMove())) {
+			board.makeMove(move);
+			long nodes = perft(board, depth - 1);
+			board.unmakeMove();
+			result.put(move.toString(), nodes);
+			log.info("{}: {}", move, nodes);
+		}
+		return result;
+	}
+
+	/**
+	 * Run a timed perft
+	 * @param board Board to start from
+	 * @param depth number of half moves
+	 * @return node count and time needed
+	 */
+	public static Result run(Board board, int depth) {
+		long start = System.nanoTime();
+		long nodes = perft(board, depth);
+		Result result = new Result(depth, nodes, System.nanoTime() - start);
+		log.info(result);
+		return result;
+	}
+
+	/**
+	 * Run a timed parallel perft
+	 * @param board Board to start from, which is not changed
+	 * @param depth number of half moves
+	 * @param pool pool to run the tasks in
+	 * @param hashMegabytes size of the table to count transpositions only once, 0 to disable
+	 * @return node count and time needed
+	 * @see #parallelPerft(Board, int, ForkJoinPool, int)
+	 */
+	public static Result run(Board board, int depth, ForkJoinPool pool, int hashMegabytes) {
+		long start = System.nanoTime();
+		long nodes = parallelPerft(board, depth, pool, hashMegabytes);
+		Result result = new Result(depth, nodes, System.nanoTime() - start);
+		log.info(result);
+		return result;
+	}
+
+	/**
+	 * Run all reference positions up to the given depth and check the node counts
+	 * @param args optional maximum depth, defaults to 4, optional number of threads to run a parallel
+	 *             perft with, and optional size of its hash table in megabytes
+	 */
+	public static void main(String[] args) {
+		int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+		int hashMegabytes = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+		ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : null;
+		for (Reference reference : Reference.values()) {
+			for (int depth = 1; depth <= Math.min(maxDepth, reference.getMaxDepth()); depth++) {
+				Result result = pool != null ? run(reference.getBoard(), depth, pool, hashMegabytes) : run(reference.getBoard(), depth);
+				if (result.getNodes() != reference.getNodes(depth)) {
+					log.error("{} depth {}: expected {} nodes, got {}", reference, depth, reference.getNodes(depth), result.getNodes());
+				}
+			}
+		}
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Result of a timed perft
+	 */
+	public static final class Result {
+		private final int depth;
+		private final long nodes;
+		private final long nanos;
+
+		/**
+		 * Constructor
+		 * @param depth number of half moves
+		 * @param nodes number of leaf nodes
+		 * @param nanos time needed in nanoseconds
+		 */
+		public Result(int depth, long nodes, long nanos) {
+			this.depth = depth;
+			this.nodes = nodes;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * @return the number of half moves
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * @return the number of leaf nodes
+		 */
+		public long getNodes() {
+			return nodes;
+		}
+
+		/**
+		 * @return the time needed in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * @return leaf nodes per second
+		 */
+		public long getNodesPerSecond() {
+			return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("depth %d: %d nodes in %d ms (%d nps)", depth, nodes, nanos / 1_000_000, getNodesPerSecond());
+		}
+	}
+
+	/**
+	 * Standard perft positions with their known node counts, starting at depth 1
+	 */
+	public enum Reference {
+		START("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+				20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+		KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+				48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+		POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+				14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+		POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+				6L, 264L, 9_467L, 422_333L, 15_833_292L),
+		POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+				44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L);
+
+		private final String fen;
+		private final long[] nodes;
+
+		Reference(String fen, long... nodes) {
+			this.fen = fen;
+			this.nodes = nodes;
+		}
+
+		/**
+		 * @return the position in Forsyth-Edwards Notation
+		 */
+		public String getFen() {
+			return fen;
+		}
+
+		/**
+		 * @return a new Board set to the position
+		 */
+		public Board getBoard() {
+			return Board.fromFen(fen);
+		}
+
+		/**
+		 * @param depth number of half moves between 1 and {@link #getMaxDepth()}
+		 * @return the known number of leaf nodes
+		 */
+		public long getNodes(int depth) {
+			return nodes[depth - 1];
+		}
+
+		/**
+		 * @return the highest depth with a known node count
+		 */
+		public int getMaxDepth() {
+			return nodes.length;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package com.gameofjess.javachess.chesslogic;
+
+public final class PieceSquareTables {
+	/**
+	 * Material and piece-square values for the middlegame and the endgame. The score of a position is
+	 * the sum of the values of all pieces on their squares, positive for white and negative for black,
+	 * so the Board can update it with every piece it adds or removes just like the Zobrist key.
+	 * Between middlegame and endgame the scores are weighted by the phase, which is computed from the
+	 * pieces left besides Kings and Pawns.
+	 */
+
+	/**
+	 * Phase of the starting position, where the middlegame score counts fully
+	 */
+	public static final int MAX_PHASE = 24;
+
+	private static final int[] PHASES = {0, 1, 1, 2, 4, 0};
+	private static final int[] MIDGAME_VALUES = {100, 320, 330, 500, 900, 0};
+	private static final int[] ENDGAME_VALUES = {120, 290, 310, 540, 950, 0};
+
+	/**
+	 * Tables from the view of white, written as the board is printed: the first row is the eighth
+	 * rank and every row starts with the a-file
+	 */
+	private static final int[][] MIDGAME_TABLES = {
+			{
+					0, 0, 0, 0, 0, 0, 0, 0,
+					50, 50, 50, 50, 50, 50, 50, 50,
+					10, 10, 20, 30, 30, 20, 10, 10,
+					5, 5, 10, 25, 25, 10, 5, 5,
+					0, 0, 0, 20, 20, 0, 0, 0,
+					5, -5, -10, 0, 0, -10, -5, 5,
+					5, 10, 10, -20, -20, 10, 10, 5,
+					0, 0, 0, 0, 0, 0, 0, 0
+			}, {
+					-50, -40, -30, -30, -30, -30, -40, -50,
+					-40, -20, 0, 0, 0, 0, -20, -40,
+					-30, 0, 10, 15, 15, 10, 0, -30,
+					-30, 5, 15, 20, 20, 15, 5, -30,
+					-30, 0, 15, 20, 20, 15, 0, -30,
+					-30, 5, 10, 15, 15, 10, 5, -30,
+					-40, -20, 0, 5, 5, 0, -20, -40,
+					-50, -40, -30, -30, -30, -30, -40, -50
+			}, {
+					-20, -10, -10, -10, -10, -10, -10, -20,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-10, 0, 5, 10, 10, 5, 0, -10,
+					-10, 5, 5, 10, 10, 5, 5, -10,
+					-10, 0, 10, 10, 10, 10, 0, -10,
+					-10, 10, 10, 10, 10, 10, 10, -10,
+					-10, 5, 0, 0, 0, 0, 5, -10,
+					-20, -10, -10, -10, -10, -10, -10, -20
+			}, {
+					0, 0, 0, 0, 0, 0, 0, 0,
+					5, 10, 10, 10, 10, 10, 10, 5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					-5, 0, 0, 0, 0, 0, 0, -5,
+					0, 0, 0, 5, 5, 0, 0, 0
+			}, {
+					-20, -10, -10, -5, -5, -10, -10, -20,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-5, 0, 5, 5, 5, 5, 0, -5,
+					0, 0, 5, 5, 5, 5, 0, -5,
+					-10, 5, 5, 5, 5, 5, 0, -10,
+					-10, 0, 5, 0, 0, 0, 0, -10,
+					-20, -10, -10, -5, -5, -10, -10, -20
+			}, {
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-30, -40, -40, -50, -50, -40, -40, -30,
+					-20, -30, -30, -40, -40, -30, -30, -20,
+					-10, -20, -20, -20, -20, -20, -20, -10,
+					20, 20, 0, 0, 0, 0, 20, 20,
+					20, 30, 10, 0, 0, 10, 30, 20
+			}
+	};
+
+	private static final int[][] ENDGAME_TABLES = {
+			{
+					0, 0, 0, 0, 0, 0, 0, 0,
+					90, 90, 90, 90, 90, 90, 90, 90,
+					55, 55, 50, 45, 45, 50, 55, 55,
+					30, 30, 25, 20, 20, 25, 30, 30,
+					15, 15, 10, 10, 10, 10, 15, 15,
+					5, 5, 0, 0, 0, 0, 5, 5,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					0, 0, 0, 0, 0, 0, 0, 0
+			}, {
+					-40, -30, -20, -20, -20, -20, -30, -40,
+					-30, -15, -5, 0, 0, -5, -15, -30,
+					-20, -5, 5, 10, 10, 5, -5, -20,
+					-20, 0, 10, 15, 15, 10, 0, -20,
+					-20, 0, 10, 15, 15, 10, 0, -20,
+					-20, -5, 5, 10, 10, 5, -5, -20,
+					-30, -15, -5, 0, 0, -5, -15, -30,
+					-40, -30, -20, -20, -20, -20, -30, -40
+			}, {
+					-15, -10, -10, -10, -10, -10, -10, -15,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-10, 0, 5, 10, 10, 5, 0, -10,
+					-10, 0, 5, 10, 10, 5, 0, -10,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-10, 0, 0, 0, 0, 0, 0, -10,
+					-15, -10, -10, -10, -10, -10, -10, -15
+			}, {
+					5, 5, 5, 5, 5, 5, 5, 5,
+					10, 10, 10, 10, 10, 10, 10, 10,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					0, 0, 0, 0, 0, 0, 0, 0,
+					-5, -5, 0, 0, 0, 0, -5, -5
+			}, {
+					-20, -10, -10, -5, -5, -10, -10, -20,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-10, 5, 10, 10, 10, 10, 5, -10,
+					-5, 5, 10, 15, 15, 10, 5, -5,
+					-5, 5, 10, 15, 15, 10, 5, -5,
+					-10, 5, 10, 10, 10, 10, 5, -10,
+					-10, 0, 5, 5, 5, 5, 0, -10,
+					-20, -10, -10, -5, -5, -10, -10, -20
+			}, {
+					-50, -30, -30, -30, -30, -30, -30, -50,
+					-30, -10, 0, 0, 0, 0, -10, -30,
+					-30, 0, 20, 30, 30, 20, 0, -30,
+					-30, 0, 30, 40, 40, 30, 0, -30,
+					-30, 0, 30, 40, 40, 30, 0, -30,
+					-30, 0, 20, 30, 30, 20, 0, -30,
+					-30, -20, -10, 0, 0, -10, -20, -30,
+					-50, -40, -30, -20, -20, -30, -40, -50
+			}
+	};
+
+	/**
+	 * Signed values indexed by (type * 2 + color) * 64 + square, including the material
+	 */
+	private static final int[] MIDGAME = new int[12 * 64];
+	private static final int[] ENDGAME = new int[12 * 64];
+
+	static {
+		for (int type = 0; type < 6; type++) {
+			for (int square = 0; square < 64; square++) {
+				// the x coordinate of a square runs from the h-file to the a-file
+				int file = 7 - Bitboards.getX(square);
+				int y = Bitboards.getY(square);
+				int white = (7 - y) * 8 + file;
+				int black = y * 8 + file;
+				MIDGAME[(type * 2) * 64 + square] = MIDGAME_VALUES[type] + MIDGAME_TABLES[type][white];
+				MIDGAME[(type * 2 + 1) * 64 + square] = -MIDGAME_VALUES[type] - MIDGAME_TABLES[type][black];
+				ENDGAME[(type * 2) * 64 + square] = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][white];
+				ENDGAME[(type * 2 + 1) * 64 + square] = -ENDGAME_VALUES[type] - ENDGAME_TABLES[type][black];
+			}
+		}
+	}
+
+	private PieceSquareTables() {
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @param isWhite color of the piece
+	 * @param square square index between 0 and 63
+	 * @return middlegame value of the piece on the square, negative for black
+	 */
+	public static int midgame(int type, boolean isWhite, int square) {
+		return MIDGAME[(type * 2 + (isWhite ? 0 : 1)) * 64 + square];
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @param isWhite color of the piece
+	 * @param square square index between 0 and 63
+	 * @return endgame value of the piece on the square, negative for black
+	 */
+	public static int endgame(int type, boolean isWhite, int square) {
+		return ENDGAME[(type * 2 + (isWhite ? 0 : 1)) * 64 + square];
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @return middlegame material value of a piece of the type, which is 0 for the King
+	 */
+	public static int value(int type) {
+		return MIDGAME_VALUES[type];
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @return contribution of a piece of the type to the phase
+	 */
+	public static int phase(int type) {
+		return PHASES[type];
+	}
+
+	/**
+	 * Weight the middlegame and the endgame score by the phase
+	 * @param midgame middlegame score
+	 * @param endgame endgame score
+	 * @param phase phase, counting as {@link #MAX_PHASE} if it is higher after promotions
+	 * @return the tapered score
+	 */
+	public static int taper(int midgame, int endgame, int phase) {
+		int weight = Math.min(phase, MAX_PHASE);
+		return (midgame * weight + endgame * (MAX_PHASE - weight)) / MAX_PHASE;
+	}
+}
@@ -1,32 +1,62 @@
 package com.gameofjess.javachess.chesslogic;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 public class Position {
 	/**
-	 * This Class represents a position on the Chessboard
+	 * This Class represents a position on the Chessboard. Positions are immutable, so the 64 positions
+	 * of the board are created once and shared, see {@link #of(int, int)}.
 	 */
-	private static final Logger log = LogManager.getLogger(Position.class);
+	private static final Position[] POSITIONS = new Position[64];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			POSITIONS[square] = new Position(Bitboards.getX(square), Bitboards.getY(square));
+		}
+	}
+
 	private final byte x;
 	private final byte y;
 
 	/**
-	 * constructor
+	 * constructor, prefer the shared instances from {@link #of(int, int)}
 	 * @param x value of the position between 0 and 7
 	 * @param y value of the position between 0 and 7
 	 */
 	public Position(int x, int y) {
-		log.trace("Create Position object");
 		this.x = (byte)x;
 		this.y = (byte)y;
 	}
 
 	/**
-	 * @return clone of the position object
+	 * @param x value of the position between 0 and 7
+	 * @param y value of the position between 0 and 7
+	 * @return the shared position object
+	 */
+	public static Position of(int x, int y) {
+		return POSITIONS[y << 3 | x];
+	}
+
+	/**
+	 * @param square square index between 0 and 63
+	 * @return the shared position object
+	 * @see Bitboards#square(int, int)
+	 */
+	public static Position of(int square) {
+		return POSITIONS[square];
+	}
+
+	/**
+	 * @return the position object itself, as positions are immutable
 	 */
 	public Position getClone(){
-		return new Position(x, y);
+		return this;
+	}
+
+	/**
+	 * @return square index between 0 and 63
+	 * @see Bitboards#square(int, int)
+	 */
+	public int getSquare() {
+		return y << 3 | x;
 	}
 
 	@Override
@@ -58,6 +88,13 @@ public class Position {
 		return y;
 	}
 
+	/**
+	 * @return the position in algebraic notation, e.g. e2. The x value counts from the h-file to the a-file.
+	 */
+	public String toNotation() {
+		return String.valueOf((char) ('h' - x)) + (char) ('1' + y);
+	}
+
 	@Override
 	public String toString() {
 		return "("+x+","+y+")";
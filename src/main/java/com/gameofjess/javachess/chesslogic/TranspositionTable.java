@@ -0,0 +1,196 @@
+package com.gameofjess.javachess.chesslogic;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class TranspositionTable {
+	/**
+	 * Fixed-size hash table of search results keyed by the Zobrist key of a position. The entries are
+	 * stored in a single long[], two longs per entry: the key XOR the data and the data itself. A reader
+	 * only accepts an entry if both halves XOR back to its key, so entries torn by concurrent writes are
+	 * treated as misses and the table can be shared by several threads without locking.
+	 * Four entries form a bucket of one cache line. A new entry replaces the entry of the same position,
+	 * otherwise the shallowest entry, where entries of older searches count as shallower.
+	 */
+	private static final Logger log = LogManager.getLogger(TranspositionTable.class);
+
+	public static final int LOWER_BOUND = 1;
+	public static final int UPPER_BOUND = 2;
+	public static final int EXACT = 3;
+
+	private static final int BUCKET_SIZE = 4;
+	private static final int BYTES_PER_BUCKET = BUCKET_SIZE * 2 * Long.BYTES;
+	private static final int MAX_BUCKETS = 1 << 27;
+
+	private static final int SCORE_SHIFT = 16;
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 40;
+	private static final int AGE_SHIFT = 42;
+	private static final int AGE_MASK = 0x3F;
+
+	private final long[] table;
+	private final int bucketMask;
+	private int age;
+
+	/**
+	 * Create a table with the largest power of two number of buckets fitting into the given size
+	 * @param megabytes maximum size of the table
+	 */
+	public TranspositionTable(int megabytes) {
+		long buckets = Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_BUCKET);
+		int size = (int) Math.min(Long.highestOneBit(buckets), MAX_BUCKETS);
+		table = new long[size * BUCKET_SIZE * 2];
+		bucketMask = size - 1;
+		log.debug("Created transposition table with {} entries", size * BUCKET_SIZE);
+	}
+
+	/**
+	 * Look up the entry of a position
+	 * @param key Zobrist key of the position
+	 * @return the data of the entry or 0 if there is none, to be unpacked with {@link #getMove(long)},
+	 *         {@link #getScore(long)}, {@link #getDepth(long)} and {@link #getBound(long)}
+	 */
+	public long probe(long key) {
+		int bucket = bucket(key);
+		for (int i = bucket; i < bucket + BUCKET_SIZE * 2; i += 2) {
+			long data = table[i + 1];
+			if ((table[i] ^ data) == key && data != 0) {
+				return data;
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * Store the result of a search
+	 * @param key Zobrist key of the position
+	 * @param move encoded best move or 0 if there is none, only the lowest 16 bits are stored
+	 * @param score score between -32768 and 32767
+	 * @param depth remaining search depth between 0 and 255
+	 * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		if (bound < LOWER_BOUND || bound > EXACT) {
+			throw new IllegalArgumentException("Invalid bound " + bound);
+		}
+		int bucket = bucket(key);
+		int replace = bucket;
+		int replaceValue = Integer.MAX_VALUE;
+		for (int i = bucket; i < bucket + BUCKET_SIZE * 2; i += 2) {
+			long data = table[i + 1];
+			if (data == 0) {
+				if (replaceValue > Integer.MIN_VALUE) {
+					replace = i;
+					replaceValue = Integer.MIN_VALUE;
+				}
+				continue;
+			}
+			if ((table[i] ^ data) == key) {
+				// keep a deeper result of the current search unless the new one is exact
+				if (depth < getDepth(data) && bound != EXACT && getAge(data) == age) {
+					return;
+				}
+				if (move == 0) {
+					move = getMove(data);
+				}
+				replace = i;
+				break;
+			}
+			int value = getDepth(data) - 8 * ((age - getAge(data)) & AGE_MASK);
+			if (value < replaceValue) {
+				replace = i;
+				replaceValue = value;
+			}
+		}
+		long data = pack(move, score, depth, bound, age);
+		table[replace] = key ^ data;
+		table[replace + 1] = data;
+	}
+
+	/**
+	 * Start a new search, so the entries of previous searches are replaced first
+	 */
+	public void newSearch() {
+		age = (age + 1) & AGE_MASK;
+	}
+
+	/**
+	 * Remove all entries
+	 */
+	public void clear() {
+		Arrays.fill(table, 0L);
+		age = 0;
+	}
+
+	/**
+	 * @return the number of entries
+	 */
+	public int getCapacity() {
+		return table.length / 2;
+	}
+
+	/**
+	 * @return permille of the first thousand entries used by the current search
+	 */
+	public int getHashfull() {
+		int used = 0;
+		int entries = Math.min(1000, getCapacity());
+		for (int i = 0; i < entries; i++) {
+			long data = table[i * 2 + 1];
+			if (data != 0 && getAge(data) == age) {
+				used++;
+			}
+		}
+		return used * 1000 / entries;
+	}
+
+	private int bucket(long key) {
+		return ((int) key & bucketMask) * BUCKET_SIZE * 2;
+	}
+
+	private static long pack(int move, int score, int depth, int bound, int age) {
+		return (move & 0xFFFFL)
+				| (score & 0xFFFFL) << SCORE_SHIFT
+				| (depth & 0xFFL) << DEPTH_SHIFT
+				| (long) (bound & 3) << BOUND_SHIFT
+				| (long) (age & AGE_MASK) << AGE_SHIFT;
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return the encoded best move or 0
+	 */
+	public static int getMove(long data) {
+		return (int) (data & 0xFFFF);
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return the score
+	 */
+	public static int getScore(long data) {
+		return (short) (data >>> SCORE_SHIFT);
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return the remaining search depth
+	 */
+	public static int getDepth(long data) {
+		return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+	 */
+	public static int getBound(long data) {
+		return (int) (data >>> BOUND_SHIFT) & 3;
+	}
+
+	private static int getAge(long data) {
+		return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+	}
+}
@@ -0,0 +1,86 @@
+package com.gameofjess.javachess.chesslogic;
+
+import java.util.SplittableRandom;
+
+public final class Zobrist {
+	/**
+	 * Random keys for Zobrist hashing. The key of a position is the XOR of the keys of all pieces on
+	 * their squares, the side to move, the castling rights and the enpassant file, so it can be updated
+	 * with a few XOR operations whenever a piece moves. The keys are generated from a fixed seed and
+	 * therefore the same in every run.
+	 */
+
+	public static final int WHITE_SHORT = 1;
+	public static final int WHITE_LONG = 2;
+	public static final int BLACK_SHORT = 4;
+	public static final int BLACK_LONG = 8;
+
+	/**
+	 * One key per piece type, color and square, indexed by (type * 2 + color) * 64 + square
+	 */
+	private static final long[] PIECES = new long[12 * 64];
+	/**
+	 * One key per combination of castling rights
+	 */
+	private static final long[] CASTLING = new long[16];
+	/**
+	 * One key per file of an enpassant capture
+	 */
+	private static final long[] ENPASSANT = new long[8];
+	private static final long BLACK_TO_MOVE;
+
+	static {
+		SplittableRandom random = new SplittableRandom(0x4A455353L);
+		for (int i = 0; i < PIECES.length; i++) {
+			PIECES[i] = random.nextLong();
+		}
+		long[] rights = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+		for (int mask = 0; mask < CASTLING.length; mask++) {
+			for (int right = 0; right < rights.length; right++) {
+				if ((mask & 1 << right) != 0) {
+					CASTLING[mask] ^= rights[right];
+				}
+			}
+		}
+		for (int i = 0; i < ENPASSANT.length; i++) {
+			ENPASSANT[i] = random.nextLong();
+		}
+		BLACK_TO_MOVE = random.nextLong();
+	}
+
+	private Zobrist() {
+	}
+
+	/**
+	 * @param type piece type as defined in {@link Bitboards}
+	 * @param isWhite color of the piece
+	 * @param square square index between 0 and 63
+	 * @return key of the piece on the square
+	 */
+	public static long piece(int type, boolean isWhite, int square) {
+		return PIECES[(type << 1 | (isWhite ? 0 : 1)) << 6 | square];
+	}
+
+	/**
+	 * @param rights combination of {@link #WHITE_SHORT}, {@link #WHITE_LONG}, {@link #BLACK_SHORT} and {@link #BLACK_LONG}
+	 * @return key of the castling rights, 0 if there are none
+	 */
+	public static long castling(int rights) {
+		return CASTLING[rights];
+	}
+
+	/**
+	 * @param x x value of the square the enpassant capture moves to
+	 * @return key of the enpassant file
+	 */
+	public static long enpassant(int x) {
+		return ENPASSANT[x];
+	}
+
+	/**
+	 * @return key that is included if black is to move
+	 */
+	public static long blackToMove() {
+		return BLACK_TO_MOVE;
+	}
+}
@@ -0,0 +1,506 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.gameofjess.javachess.chesslogic.Bitboards;
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
+import com.gameofjess.javachess.chesslogic.TranspositionTable;
+
+public class Engine {
+	/**
+	 * Chess engine searching the best move of a position, e.g. for a bot opponent on the server or a
+	 * hint on the client. The search is a negamax alpha-beta search with iterative deepening and
+	 * principal variation search, followed by a quiescence search of the captures at the leaves, and
+	 * the results are kept in a transposition table between searches. Null-move pruning, late move
+	 * reductions, futility pruning and check extensions can be switched with {@link SearchOptions}.
+	 * An Engine searches on its own copy of the Board, so the Board passed in can still be used by
+	 * the caller, but an Engine can only run one search at a time.
+	 */
+	private static final Logger log = LogManager.getLogger(Engine.class);
+
+	/**
+	 * Maximum depth of the search in half moves
+	 */
+	public static final int MAX_PLY = 128;
+	/**
+	 * Score of a checkmate on the Board, a mate in n half moves scores MATE - n
+	 */
+	public static final int MATE = 31000;
+	private static final int INFINITE = 32000;
+	private static final int MATE_BOUND = MATE - MAX_PLY;
+
+	/**
+	 * The clock is only read every so many nodes
+	 */
+	private static final int TIME_CHECK_INTERVAL = 1024;
+
+	private static final int NULL_MOVE_DEPTH = 3;
+	private static final int REVERSE_FUTILITY_DEPTH = 3;
+	private static final int REVERSE_FUTILITY_MARGIN = 120;
+	/**
+	 * Margins of the futility pruning indexed by the remaining depth
+	 */
+	private static final int[] FUTILITY_MARGINS = {0, 200, 350};
+	private static final int REDUCTION_DEPTH = 3;
+	/**
+	 * Number of moves searched with the full depth before the late move reductions start
+	 */
+	private static final int REDUCTION_MOVES = 3;
+	/**
+	 * Reductions indexed by the remaining depth and the rank of the move in the ordering
+	 */
+	private static final int[][] REDUCTIONS = new int[64][64];
+
+	static {
+		for (int depth = 1; depth < 64; depth++) {
+			for (int rank = 1; rank < 64; rank++) {
+				REDUCTIONS[depth][rank] = (int) (0.5 + Math.log(depth) * Math.log(rank) / 2.5);
+			}
+		}
+	}
+
+	/**
+	 * Size of the pawn hash table, pawn structures repeat often enough to fit into a small table
+	 */
+	private static final int PAWN_HASH_MEGABYTES = 1;
+
+	private final TranspositionTable table;
+	private final PawnHashTable pawnTable = new PawnHashTable(PAWN_HASH_MEGABYTES);
+	private final MoveList[] moveLists = new MoveList[MAX_PLY];
+	private final MoveOrdering ordering = new MoveOrdering();
+	private SearchOptions options = new SearchOptions();
+	/**
+	 * Move made at every ply of the current search path
+	 */
+	private final int[] pathMoves = new int[MAX_PLY];
+	/**
+	 * Triangular table of the principal variation, row ply holds the best line found from that ply on
+	 */
+	private final int[][] principalVariation = new int[MAX_PLY + 1][MAX_PLY + 1];
+	private final int[] principalVariationLength = new int[MAX_PLY + 1];
+
+	/**
+	 * Zobrist keys of the positions of the game followed by the positions on the current search path
+	 */
+	private long[] keys = new long[0];
+	private int gameKeys;
+	/**
+	 * Index of the first key a position can repeat, which is after the last null move
+	 */
+	private int repetitionFloor;
+
+	private Board board;
+	private long nodes;
+	private long nodeLimit;
+	private long deadline;
+	private volatile boolean stopped;
+
+	/**
+	 * Create an Engine with a transposition table of 16 megabytes
+	 */
+	public Engine() {
+		this(16);
+	}
+
+	/**
+	 * Create an Engine
+	 * @param hashMegabytes size of the transposition table
+	 */
+	public Engine(int hashMegabytes) {
+		table = new TranspositionTable(hashMegabytes);
+		for (int i = 0; i < moveLists.length; i++) {
+			moveLists[i] = new MoveList();
+		}
+	}
+
+	/**
+	 * Search the best move for the side to move. The Board is copied, so it is not changed and must
+	 * only not be changed by another thread while the copy is made.
+	 * @param board position to search
+	 * @param limits depth, node and time limits of the search
+	 * @return the result of the last completed iteration
+	 */
+	public SearchResult search(Board board, SearchLimits limits) {
+		log.debug("Starting search with {}", limits);
+		long start = System.nanoTime();
+		long[] repetitionKeys = board.getRepetitionKeys();
+		this.board = new Board(board);
+		gameKeys = repetitionKeys.length;
+		keys = new long[gameKeys + MAX_PLY + 1];
+		System.arraycopy(repetitionKeys, 0, keys, 0, gameKeys);
+		repetitionFloor = 0;
+		nodes = 0;
+		nodeLimit = limits.getNodes();
+		deadline = limits.getTime() > 0 ? start + limits.getTime() * 1_000_000 : Long.MAX_VALUE;
+		stopped = false;
+		table.newSearch();
+		ordering.newSearch();
+
+		boolean isWhite = this.board.isWhiteToMove();
+		MoveList rootMoves = new MoveList();
+		this.board.generateLegalMoves(isWhite, rootMoves);
+		if (rootMoves.isEmpty()) {
+			int score = this.board.getCheckers(isWhite) != 0 ? -MATE : 0;
+			this.board = null;
+			return new SearchResult(Moves.NONE, score, 0, 0, (System.nanoTime() - start) / 1_000_000, new int[0]);
+		}
+
+		int bestScore = 0;
+		int completedDepth = 0;
+		int[] line = new int[0];
+		for (int depth = 1; depth <= limits.getDepth(); depth++) {
+			int score = negamax(depth, -INFINITE, INFINITE, 0);
+			if (stopped && completedDepth > 0) {
+				break;
+			}
+			bestScore = score;
+			completedDepth = depth;
+			line = new int[principalVariationLength[0]];
+			System.arraycopy(principalVariation[0], 0, line, 0, line.length);
+			log.debug("Depth {} score {} nodes {}", depth, score, nodes);
+			if (stopped || Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= depth) {
+				// a mate found within the depth cannot get any shorter
+				break;
+			}
+			if (deadline != Long.MAX_VALUE && System.nanoTime() > start + (deadline - start) / 2) {
+				// the next iteration would most likely not be completed in time
+				break;
+			}
+		}
+		if (line.length == 0) {
+			// stopped before the first move was searched
+			line = new int[] {rootMoves.get(0)};
+		}
+		SearchResult result = new SearchResult(line[0], bestScore, completedDepth, nodes,
+				(System.nanoTime() - start) / 1_000_000, line);
+		log.debug("Search finished: {}, pawn hash hit rate {}", result, pawnTable.getHitRate());
+		this.board = null;
+		return result;
+	}
+
+	/**
+	 * Stop a running search from another thread. The search returns the result of the last
+	 * completed iteration.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * @param options switches for the selective parts of the following searches
+	 */
+	public void setOptions(SearchOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * @return switches for the selective parts of the search
+	 */
+	public SearchOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * Forget the results of earlier searches, e.g. when a new game starts
+	 */
+	public void clear() {
+		table.clear();
+		pawnTable.clear();
+		ordering.clear();
+	}
+
+	/**
+	 * @return the cache of the pawn structure evaluation, e.g. for its hit rate
+	 */
+	public PawnHashTable getPawnHashTable() {
+		return pawnTable;
+	}
+
+	/**
+	 * Alpha-beta search of the current position
+	 * @param depth remaining depth in half moves
+	 * @param alpha score the side to move is already guaranteed
+	 * @param beta score the opponent is already guaranteed
+	 * @param ply distance to the root of the search
+	 * @return score from the view of the side to move
+	 */
+	private int negamax(int depth, int alpha, int beta, int ply) {
+		principalVariationLength[ply] = 0;
+		if (checkLimits()) {
+			return 0;
+		}
+		long key = board.getZobristKey();
+		keys[gameKeys + ply] = key;
+		if (ply > 0) {
+			if (isDraw(ply)) {
+				return 0;
+			}
+			// no line can be better than a mate right now or worse than being mated right now
+			alpha = Math.max(alpha, -MATE + ply);
+			beta = Math.min(beta, MATE - ply - 1);
+			if (alpha >= beta) {
+				return alpha;
+			}
+			if (ply >= MAX_PLY) {
+				return Evaluation.evaluate(board, pawnTable);
+			}
+		}
+
+		boolean pvNode = beta - alpha > 1;
+		int ttMove = Moves.NONE;
+		long entry = table.probe(key);
+		if (entry != 0) {
+			ttMove = TranspositionTable.getMove(entry);
+			if (!pvNode && TranspositionTable.getDepth(entry) >= depth) {
+				int score = fromTable(TranspositionTable.getScore(entry), ply);
+				int bound = TranspositionTable.getBound(entry);
+				if (bound == TranspositionTable.EXACT
+						|| bound == TranspositionTable.LOWER_BOUND && score >= beta
+						|| bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+					return score;
+				}
+			}
+		}
+
+		boolean isWhite = board.isWhiteToMove();
+		boolean inCheck = board.getCheckers(isWhite) != 0;
+		if (inCheck && options.isCheckExtensions()) {
+			depth++;
+		}
+		if (depth <= 0) {
+			return quiescence(alpha, beta, ply);
+		}
+
+		int staticEval = inCheck ? -INFINITE : Evaluation.evaluate(board, pawnTable);
+		if (!pvNode && !inCheck) {
+			if (options.isReverseFutilityPruning() && depth <= REVERSE_FUTILITY_DEPTH && Math.abs(beta) < MATE_BOUND
+					&& staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+				// the opponent will not allow a position that is this good even after a quiet move
+				return staticEval;
+			}
+			if (options.isNullMovePruning() && depth >= NULL_MOVE_DEPTH && staticEval >= beta
+					&& pathMoves[ply - 1] != Moves.NONE && hasPieces(isWhite)) {
+				// if passing is already good enough, a real move most likely is as well, unless the
+				// side to move is in zugzwang, which is rare as long as it has pieces besides Pawns
+				int reduction = depth >= 6 ? 3 : 2;
+				pathMoves[ply] = Moves.NONE;
+				int floor = repetitionFloor;
+				repetitionFloor = gameKeys + ply + 1;
+				board.makeNullMove();
+				int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1);
+				board.unmakeMove();
+				repetitionFloor = floor;
+				if (stopped) {
+					return 0;
+				}
+				if (score >= beta) {
+					return score >= MATE_BOUND ? beta : score;
+				}
+			}
+		}
+		boolean futile = options.isFutilityPruning() && !pvNode && !inCheck && depth < FUTILITY_MARGINS.length
+				&& Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGINS[depth] <= alpha;
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		board.generateLegalMoves(isWhite, moves);
+		if (moves.isEmpty()) {
+			return inCheck ? -MATE + ply : 0;
+		}
+		int previousMove = ply > 0 ? pathMoves[ply - 1] : Moves.NONE;
+		ordering.score(board, moves, ply, ttMove, previousMove);
+
+		int originalAlpha = alpha;
+		int bestScore = -INFINITE;
+		int bestMove = Moves.NONE;
+		for (int i = 0; i < moves.size(); i++) {
+			int move = ordering.next(moves, ply, i);
+			boolean quiet = !MoveOrdering.isTactical(move);
+			pathMoves[ply] = move;
+			board.makeMove(move);
+			boolean givesCheck = board.getCheckers(!isWhite) != 0;
+			if (futile && i > 0 && quiet && !givesCheck) {
+				// the move cannot make up for the material missing to reach alpha
+				board.unmakeMove();
+				bestScore = Math.max(bestScore, staticEval + FUTILITY_MARGINS[depth]);
+				continue;
+			}
+			int score;
+			if (i == 0) {
+				score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+			} else {
+				int reduction = 0;
+				if (options.isLateMoveReductions() && depth >= REDUCTION_DEPTH && i >= REDUCTION_MOVES && quiet
+						&& !inCheck && !givesCheck) {
+					reduction = Math.min(REDUCTIONS[Math.min(depth, 63)][Math.min(i, 63)] + (pvNode ? 0 : 1), depth - 2);
+				}
+				// prove with a null window that the move is not better than the first one, at first
+				// with less depth if the move is late in the ordering
+				score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+				if (reduction > 0 && score > alpha) {
+					score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+				}
+				if (score > alpha && score < beta) {
+					score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+				}
+			}
+			board.unmakeMove();
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+				if (score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+					if (alpha >= beta) {
+						if (quiet) {
+							ordering.update(board, moves, ply, i + 1, depth, previousMove);
+						}
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+				: bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+		table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+		return bestScore;
+	}
+
+	/**
+	 * Search only the captures and promotions that do not lose material, so that positions in the
+	 * middle of an exchange are not evaluated. The side to move may also stand pat on the static
+	 * evaluation, unless it is in check, in which case all evasions are searched.
+	 * @param alpha score the side to move is already guaranteed
+	 * @param beta score the opponent is already guaranteed
+	 * @param ply distance to the root of the search
+	 * @return score from the view of the side to move
+	 */
+	private int quiescence(int alpha, int beta, int ply) {
+		principalVariationLength[ply] = 0;
+		if (checkLimits()) {
+			return 0;
+		}
+		if (ply >= MAX_PLY) {
+			return Evaluation.evaluate(board, pawnTable);
+		}
+		boolean isWhite = board.isWhiteToMove();
+		boolean inCheck = board.getCheckers(isWhite) != 0;
+		int bestScore = -MATE + ply;
+		if (!inCheck) {
+			bestScore = Evaluation.evaluate(board, pawnTable);
+			if (bestScore >= beta) {
+				return bestScore;
+			}
+			alpha = Math.max(alpha, bestScore);
+		}
+
+		MoveList moves = moveLists[ply];
+		moves.clear();
+		board.generateLegalMoves(isWhite, moves);
+		ordering.score(board, moves, ply, Moves.NONE, Moves.NONE);
+		for (int i = 0; i < moves.size(); i++) {
+			int move = ordering.next(moves, ply, i);
+			if (!inCheck && ordering.getScore(ply, i) < MoveOrdering.CAPTURE_SCORE) {
+				// only quiet moves and losing captures are left
+				break;
+			}
+			board.makeMove(move);
+			int score = -quiescence(-beta, -alpha, ply + 1);
+			board.unmakeMove();
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				if (score > alpha) {
+					alpha = score;
+					updatePrincipalVariation(ply, move);
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		return bestScore;
+	}
+
+	private void updatePrincipalVariation(int ply, int move) {
+		int[] line = principalVariation[ply];
+		int[] next = principalVariation[ply + 1];
+		int length = principalVariationLength[ply + 1];
+		line[0] = move;
+		System.arraycopy(next, 0, line, 1, length);
+		principalVariationLength[ply] = length + 1;
+	}
+
+	/**
+	 * @return if the side has a Knight, Bishop, Rook or Queen
+	 */
+	private boolean hasPieces(boolean isWhite) {
+		return (board.getOccupancy(isWhite) & ~board.getBitboard(Bitboards.PAWN, isWhite) & ~board.getBitboard(Bitboards.KING, isWhite)) != 0;
+	}
+
+	/**
+	 * Count the node and check if the search has to stop
+	 */
+	private boolean checkLimits() {
+		if (stopped) {
+			return true;
+		}
+		nodes++;
+		if (nodes >= nodeLimit || nodes % TIME_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	/**
+	 * Check if the position counts as a draw: by the fifty-move rule unless the side to move is mated,
+	 * by insufficient material, or by any repetition of a position of the game or of the search since
+	 * the last capture, Pawn move or null move. Within the search a single repetition already counts
+	 * as a draw, as the same moves could be repeated again.
+	 */
+	private boolean isDraw(int ply) {
+		boolean isWhite = board.isWhiteToMove();
+		if (board.isFiftyMoveRule() && (board.getCheckers(isWhite) == 0 || board.hasAnyLegalMove(isWhite))
+				|| board.isInsufficientMaterial()) {
+			return true;
+		}
+		int current = gameKeys + ply;
+		int oldest = Math.max(repetitionFloor, current - board.getHalfmoveClock());
+		for (int i = current - 2; i >= oldest; i -= 2) {
+			if (keys[i] == keys[current]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Mate scores are stored relative to the position instead of the root
+	 */
+	private static int toTable(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score + ply;
+		} else if (score <= -MATE_BOUND) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE_BOUND) {
+			return score - ply;
+		} else if (score <= -MATE_BOUND) {
+			return score + ply;
+		}
+		return score;
+	}
+}
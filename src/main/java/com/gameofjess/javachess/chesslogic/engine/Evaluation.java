@@ -0,0 +1,181 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import com.gameofjess.javachess.chesslogic.Bitboards;
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.PieceSquareTables;
+
+public final class Evaluation {
+	/**
+	 * Static evaluation of a position: the material of both sides plus a bonus or malus for the square
+	 * of every piece, tapered between middlegame and endgame, and the pawn structure with the shelter
+	 * of the Kings. Scores are in centipawns. The Board keeps the material and piece-square terms up
+	 * to date with every move and the pawn structure is cached in a {@link PawnHashTable}, so
+	 * evaluating a position mostly takes constant time.
+	 * @see PieceSquareTables
+	 */
+
+	private static final int DOUBLED_MIDGAME = -10;
+	private static final int DOUBLED_ENDGAME = -20;
+	private static final int ISOLATED_MIDGAME = -10;
+	private static final int ISOLATED_ENDGAME = -15;
+	/**
+	 * Bonus of a passed Pawn indexed by its rank from the view of its color
+	 */
+	private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+	private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 100, 0};
+	/**
+	 * Shield bonus of a Pawn in front of its King on its second and on its third rank
+	 */
+	private static final int SHIELD_NEAR = 10;
+	private static final int SHIELD_FAR = 5;
+
+	private static final long FILE = 0x0101010101010101L;
+	/**
+	 * Files of the wings as x coordinates, which run from the h-file to the a-file
+	 */
+	private static final long[] WING_FILES = {
+			FILE << 5 | FILE << 6 | FILE << 7, FILE << 3 | FILE << 4, FILE | FILE << 1 | FILE << 2
+	};
+	/**
+	 * Squares on the same and the neighboring files in front of a Pawn, indexed by color and square
+	 */
+	private static final long[][] PASSED_MASKS = new long[2][64];
+
+	static {
+		for (int square = 0; square < 64; square++) {
+			int x = Bitboards.getX(square);
+			long files = neighbors(x) | FILE << x;
+			int y = Bitboards.getY(square);
+			PASSED_MASKS[0][square] = y == 7 ? 0 : files & -1L << (8 * (y + 1));
+			PASSED_MASKS[1][square] = files & ~(-1L << (8 * y));
+		}
+	}
+
+	private Evaluation() {
+	}
+
+	/**
+	 * Evaluate a position without caching the pawn structure
+	 * @param board Board to evaluate
+	 * @return score from the view of the side to move
+	 */
+	public static int evaluate(Board board) {
+		return evaluate(board, null);
+	}
+
+	/**
+	 * Evaluate a position
+	 * @param board Board to evaluate
+	 * @param pawnTable cache of the pawn structure or null
+	 * @return score from the view of the side to move
+	 */
+	public static int evaluate(Board board, PawnHashTable pawnTable) {
+		long pawns = 0L;
+		if (pawnTable != null) {
+			pawns = pawnTable.probe(board.getPawnKey());
+		}
+		if (pawns == 0) {
+			pawns = evaluatePawns(board);
+			if (pawnTable != null) {
+				pawnTable.store(board.getPawnKey(), pawns);
+			}
+		}
+		return combine(board, board.getMidgameScore(), board.getEndgameScore(), board.getPhase(), pawns);
+	}
+
+	/**
+	 * Evaluate a position without the incrementally updated terms of the Board and without a pawn
+	 * hash table, to verify them. The result is always equal to {@link #evaluate(Board, PawnHashTable)}.
+	 * @param board Board to evaluate
+	 * @return score from the view of the side to move
+	 */
+	public static int evaluateFromScratch(Board board) {
+		int midgame = 0;
+		int endgame = 0;
+		int phase = 0;
+		for (int type = Bitboards.PAWN; type <= Bitboards.KING; type++) {
+			for (int color = 0; color < 2; color++) {
+				long pieces = board.getBitboard(type, color == 0);
+				while (pieces != 0) {
+					int square = Long.numberOfTrailingZeros(pieces);
+					pieces &= pieces - 1;
+					midgame += PieceSquareTables.midgame(type, color == 0, square);
+					endgame += PieceSquareTables.endgame(type, color == 0, square);
+					phase += PieceSquareTables.phase(type);
+				}
+			}
+		}
+		return combine(board, midgame, endgame, phase, evaluatePawns(board));
+	}
+
+	private static int combine(Board board, int midgame, int endgame, int phase, long pawns) {
+		midgame += PawnHashTable.getMidgame(pawns) + shelter(board, pawns, true) - shelter(board, pawns, false);
+		endgame += PawnHashTable.getEndgame(pawns);
+		int score = PieceSquareTables.taper(midgame, endgame, phase);
+		return board.isWhiteToMove() ? score : -score;
+	}
+
+	/**
+	 * @return the shield score of the King of the given color on its wing
+	 */
+	private static int shelter(Board board, long pawns, boolean isWhite) {
+		long king = board.getBitboard(Bitboards.KING, isWhite);
+		if (king == 0) {
+			return 0;
+		}
+		int file = 7 - Bitboards.getX(Long.numberOfTrailingZeros(king));
+		int wing = file <= 2 ? PawnHashTable.QUEEN_SIDE : file >= 5 ? PawnHashTable.KING_SIDE : PawnHashTable.CENTER;
+		return PawnHashTable.getShield(pawns, isWhite, wing);
+	}
+
+	/**
+	 * Evaluate the doubled, isolated and passed Pawns of both sides and their shields
+	 * @return data for the {@link PawnHashTable}
+	 */
+	static long evaluatePawns(Board board) {
+		int midgame = 0;
+		int endgame = 0;
+		long shields = 0L;
+		for (int color = 0; color < 2; color++) {
+			boolean isWhite = color == 0;
+			int sign = isWhite ? 1 : -1;
+			long own = board.getBitboard(Bitboards.PAWN, isWhite);
+			long enemy = board.getBitboard(Bitboards.PAWN, !isWhite);
+			for (int x = 0; x < 8; x++) {
+				int count = Long.bitCount(own & FILE << x);
+				if (count > 1) {
+					midgame += sign * DOUBLED_MIDGAME * (count - 1);
+					endgame += sign * DOUBLED_ENDGAME * (count - 1);
+				}
+				if (count > 0 && (own & neighbors(x)) == 0) {
+					midgame += sign * ISOLATED_MIDGAME * count;
+					endgame += sign * ISOLATED_ENDGAME * count;
+				}
+			}
+			long pawns = own;
+			while (pawns != 0) {
+				int square = Long.numberOfTrailingZeros(pawns);
+				pawns &= pawns - 1;
+				if ((PASSED_MASKS[color][square] & enemy) == 0) {
+					int rank = isWhite ? Bitboards.getY(square) : 7 - Bitboards.getY(square);
+					midgame += sign * PASSED_MIDGAME[rank];
+					endgame += sign * PASSED_ENDGAME[rank];
+				}
+			}
+			long near = own & 0xFFL << (8 * (isWhite ? 1 : 6));
+			long far = own & 0xFFL << (8 * (isWhite ? 2 : 5));
+			for (int wing = 0; wing < WING_FILES.length; wing++) {
+				int shield = SHIELD_NEAR * Long.bitCount(near & WING_FILES[wing]) + SHIELD_FAR * Long.bitCount(far & WING_FILES[wing]);
+				shields |= PawnHashTable.shield(isWhite, wing, shield);
+			}
+		}
+		return PawnHashTable.pack(midgame, endgame, shields);
+	}
+
+	/**
+	 * @return bitboard of the files next to the file with the given x coordinate
+	 */
+	private static long neighbors(int x) {
+		return (x > 0 ? FILE << (x - 1) : 0) | (x < 7 ? FILE << (x + 1) : 0);
+	}
+}
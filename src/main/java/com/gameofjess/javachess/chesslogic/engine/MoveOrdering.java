@@ -0,0 +1,204 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import java.util.Arrays;
+
+import com.gameofjess.javachess.chesslogic.Bitboards;
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
+import com.gameofjess.javachess.chesslogic.PieceSquareTables;
+import com.gameofjess.javachess.chesslogic.pieces.Piece;
+
+final class MoveOrdering {
+	/**
+	 * Orders the moves of a node so that the moves most likely to cause a cutoff are searched first:
+	 * the best move stored in the transposition table, then captures and promotions that do not lose
+	 * material by most valuable victim and least valuable attacker, then the killer moves and the
+	 * counter move, then the other quiet moves by their history and last the losing captures. The
+	 * moves are scored once and picked one at a time, so nodes with an early cutoff do not pay for
+	 * sorting the whole list.
+	 * All tables are primitive arrays indexed by piece (type << 1 | color) and square.
+	 */
+
+	private static final int TT_MOVE_SCORE = 1 << 30;
+	static final int CAPTURE_SCORE = 1 << 28;
+	private static final int LOSING_CAPTURE_SCORE = -CAPTURE_SCORE;
+	private static final int KILLER_SCORE = 1 << 27;
+	private static final int COUNTER_MOVE_SCORE = KILLER_SCORE - 2;
+	/**
+	 * History scores stay between -MAX_HISTORY and MAX_HISTORY, below the score of the killers
+	 */
+	private static final int MAX_HISTORY = 1 << 14;
+
+	private final int[][] killers = new int[Engine.MAX_PLY][2];
+	private final int[][] history = new int[12][64];
+	private final int[][] counterMoves = new int[12][64];
+	private int[][] scores = new int[Engine.MAX_PLY][256];
+	private final StaticExchange staticExchange = new StaticExchange();
+
+	/**
+	 * Prepare the tables for a new search. Killers only apply to the search they were found in and
+	 * the history of earlier searches is weighted less.
+	 */
+	void newSearch() {
+		for (int[] killer : killers) {
+			Arrays.fill(killer, Moves.NONE);
+		}
+		for (int[] values : history) {
+			for (int i = 0; i < values.length; i++) {
+				values[i] /= 2;
+			}
+		}
+	}
+
+	/**
+	 * Forget everything learned, e.g. when a new game starts
+	 */
+	void clear() {
+		newSearch();
+		for (int i = 0; i < history.length; i++) {
+			Arrays.fill(history[i], 0);
+			Arrays.fill(counterMoves[i], Moves.NONE);
+		}
+	}
+
+	/**
+	 * Score the moves of a node, to be picked afterwards with {@link #next(MoveList, int, int)}
+	 * @param board Board before the moves
+	 * @param moves legal moves of the side to move
+	 * @param ply distance to the root
+	 * @param ttMove best move of the transposition table or {@link Moves#NONE}
+	 * @param previousMove move that led to this node or {@link Moves#NONE}
+	 */
+	void score(Board board, MoveList moves, int ply, int ttMove, int previousMove) {
+		if (scores[ply].length < moves.size()) {
+			scores[ply] = new int[moves.size()];
+		}
+		int[] values = scores[ply];
+		int counterMove = Moves.NONE;
+		if (previousMove != Moves.NONE) {
+			int to = Moves.getTo(previousMove);
+			counterMove = counterMoves[index(board.getPiece(to))][to];
+		}
+		for (int i = 0; i < moves.size(); i++) {
+			int move = moves.get(i);
+			if (move == ttMove) {
+				values[i] = TT_MOVE_SCORE;
+			} else if (isTactical(move)) {
+				int value = captureValue(board, move);
+				values[i] = staticExchange.evaluate(board, move) >= 0 ? CAPTURE_SCORE + value : LOSING_CAPTURE_SCORE + value;
+			} else if (move == killers[ply][0]) {
+				values[i] = KILLER_SCORE;
+			} else if (move == killers[ply][1]) {
+				values[i] = KILLER_SCORE - 1;
+			} else if (move == counterMove) {
+				values[i] = COUNTER_MOVE_SCORE;
+			} else {
+				int from = Moves.getFrom(move);
+				values[i] = history[index(board.getPiece(from))][Moves.getTo(move)];
+			}
+		}
+	}
+
+	/**
+	 * Move the best scored of the remaining moves to the given index
+	 * @param moves scored moves
+	 * @param ply distance to the root
+	 * @param index number of moves already picked
+	 * @return the move at the index
+	 */
+	int next(MoveList moves, int ply, int index) {
+		int[] values = scores[ply];
+		int best = index;
+		for (int i = index + 1; i < moves.size(); i++) {
+			if (values[i] > values[best]) {
+				best = i;
+			}
+		}
+		if (best != index) {
+			moves.swap(index, best);
+			int value = values[index];
+			values[index] = values[best];
+			values[best] = value;
+		}
+		return moves.get(index);
+	}
+
+	/**
+	 * @param ply distance to the root
+	 * @param index index of a move already picked
+	 * @return the score the move was picked by, at least {@link #CAPTURE_SCORE} for the hash move and
+	 *         the captures and promotions that do not lose material
+	 */
+	int getScore(int ply, int index) {
+		return scores[ply][index];
+	}
+
+	/**
+	 * Learn from a quiet move that caused a cutoff. It becomes a killer and the counter move of the
+	 * previous move, its history is raised and the history of the quiet moves searched before it is
+	 * lowered.
+	 * @param board Board before the moves
+	 * @param moves moves of the node in the order they were searched
+	 * @param ply distance to the root
+	 * @param searched number of moves searched including the cutoff move, which is the last of them
+	 * @param depth remaining depth of the node
+	 * @param previousMove move that led to this node or {@link Moves#NONE}
+	 */
+	void update(Board board, MoveList moves, int ply, int searched, int depth, int previousMove) {
+		int move = moves.get(searched - 1);
+		if (killers[ply][0] != move) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = move;
+		}
+		if (previousMove != Moves.NONE) {
+			int to = Moves.getTo(previousMove);
+			counterMoves[index(board.getPiece(to))][to] = move;
+		}
+		int bonus = Math.min(depth * depth, MAX_HISTORY);
+		addHistory(board, move, bonus);
+		for (int i = 0; i < searched - 1; i++) {
+			int quiet = moves.get(i);
+			if (!isTactical(quiet)) {
+				addHistory(board, quiet, -bonus);
+			}
+		}
+	}
+
+	/**
+	 * @param move encoded move
+	 * @return if the move is a capture or a promotion, which are not killers or history moves
+	 */
+	static boolean isTactical(int move) {
+		return Moves.isCapture(move) || Moves.isPromotion(move);
+	}
+
+	/**
+	 * Raise or lower the history of a move, so that it saturates at the maximum
+	 */
+	private void addHistory(Board board, int move, int bonus) {
+		int[] values = history[index(board.getPiece(Moves.getFrom(move)))];
+		int to = Moves.getTo(move);
+		values[to] += bonus - values[to] * Math.abs(bonus) / MAX_HISTORY;
+	}
+
+	/**
+	 * Most valuable victim, least valuable attacker, with the promoted piece counting as a victim
+	 */
+	private static int captureValue(Board board, int move) {
+		int value = 0;
+		if (Moves.isCapture(move)) {
+			Piece victim = board.getPiece(Moves.getFlags(move) == Moves.ENPASSANT
+					? Moves.getTo(move) + (board.isWhiteToMove() ? -8 : 8) : Moves.getTo(move));
+			value += PieceSquareTables.value(victim.getType());
+		}
+		if (Moves.isPromotion(move)) {
+			value += PieceSquareTables.value(Moves.getPromotionType(move)) - PieceSquareTables.value(Bitboards.PAWN);
+		}
+		return value * 8 - board.getPiece(Moves.getFrom(move)).getType();
+	}
+
+	private static int index(Piece piece) {
+		return piece.getType() << 1 | (piece.isWhite() ? 0 : 1);
+	}
+}
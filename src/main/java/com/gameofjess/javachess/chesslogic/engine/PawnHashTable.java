@@ -0,0 +1,160 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public final class PawnHashTable {
+	/**
+	 * Fixed-size cache of the pawn structure evaluation keyed by the pawn key of the Board. The
+	 * entries are stored in a single long[], two longs per entry: the pawn key and the packed data,
+	 * which holds the middlegame and endgame score of doubled, isolated and passed Pawns and the
+	 * shelter the Pawns give to a King on either wing or in the center. A new entry always replaces
+	 * the old one. The table counts its probes and hits and is not meant to be shared between threads.
+	 */
+	private static final Logger log = LogManager.getLogger(PawnHashTable.class);
+
+	/**
+	 * Wings of the King for the pawn shield: files a to c, d and e, and f to h
+	 */
+	public static final int QUEEN_SIDE = 0;
+	public static final int CENTER = 1;
+	public static final int KING_SIDE = 2;
+
+	private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+	private static final int MAX_ENTRIES = 1 << 26;
+
+	private static final int ENDGAME_SHIFT = 16;
+	private static final int SHIELD_SHIFT = 32;
+	private static final int SHIELD_BITS = 5;
+	/**
+	 * Set in every entry, so that the data is never 0
+	 */
+	private static final long VALID = 1L << 63;
+
+	private final long[] table;
+	private final int mask;
+	private long probes;
+	private long hits;
+
+	/**
+	 * Create a table with the largest power of two number of entries fitting into the given size
+	 * @param megabytes maximum size of the table
+	 */
+	public PawnHashTable(int megabytes) {
+		long entries = Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+		int size = (int) Math.min(Long.highestOneBit(entries), MAX_ENTRIES);
+		table = new long[size * 2];
+		mask = size - 1;
+		log.debug("Created pawn hash table with {} entries", size);
+	}
+
+	/**
+	 * Look up the entry of a pawn structure
+	 * @param pawnKey pawn key of the position
+	 * @return the data of the entry or 0 if there is none, to be unpacked with
+	 *         {@link #getMidgame(long)}, {@link #getEndgame(long)} and {@link #getShield(long, boolean, int)}
+	 */
+	public long probe(long pawnKey) {
+		probes++;
+		int index = index(pawnKey);
+		long data = table[index + 1];
+		if (data != 0 && table[index] == pawnKey) {
+			hits++;
+			return data;
+		}
+		return 0L;
+	}
+
+	/**
+	 * Store the evaluation of a pawn structure
+	 * @param pawnKey pawn key of the position
+	 * @param data data created with {@link #pack(int, int, long)}
+	 */
+	public void store(long pawnKey, long data) {
+		int index = index(pawnKey);
+		table[index] = pawnKey;
+		table[index + 1] = data;
+	}
+
+	/**
+	 * Remove all entries and reset the counters
+	 */
+	public void clear() {
+		Arrays.fill(table, 0L);
+		probes = 0;
+		hits = 0;
+	}
+
+	/**
+	 * @return the number of lookups
+	 */
+	public long getProbes() {
+		return probes;
+	}
+
+	/**
+	 * @return the number of lookups that found their entry
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the share of lookups that found their entry, between 0 and 1
+	 */
+	public double getHitRate() {
+		return probes == 0 ? 0 : (double) hits / probes;
+	}
+
+	private int index(long pawnKey) {
+		return ((int) pawnKey & mask) * 2;
+	}
+
+	/**
+	 * @param midgame middlegame score of the pawn structure from the view of white
+	 * @param endgame endgame score of the pawn structure from the view of white
+	 * @param shields shields created with {@link #shield(boolean, int, int)}
+	 * @return data of an entry
+	 */
+	public static long pack(int midgame, int endgame, long shields) {
+		return (midgame & 0xFFFFL) | (endgame & 0xFFFFL) << ENDGAME_SHIFT | shields << SHIELD_SHIFT | VALID;
+	}
+
+	/**
+	 * @param isWhite color of the King
+	 * @param wing {@link #QUEEN_SIDE}, {@link #CENTER} or {@link #KING_SIDE}
+	 * @param value shield score between 0 and 31
+	 * @return the shield to be combined with the others with OR
+	 */
+	public static long shield(boolean isWhite, int wing, int value) {
+		return (long) Math.min(value, (1 << SHIELD_BITS) - 1) << (SHIELD_BITS * ((isWhite ? 0 : 3) + wing));
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return the middlegame score from the view of white
+	 */
+	public static int getMidgame(long data) {
+		return (short) data;
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @return the endgame score from the view of white
+	 */
+	public static int getEndgame(long data) {
+		return (short) (data >>> ENDGAME_SHIFT);
+	}
+
+	/**
+	 * @param data data of an entry
+	 * @param isWhite color of the King
+	 * @param wing {@link #QUEEN_SIDE}, {@link #CENTER} or {@link #KING_SIDE}
+	 * @return the shield score of a King of the given color on the given wing
+	 */
+	public static int getShield(long data, boolean isWhite, int wing) {
+		return (int) (data >>> (SHIELD_SHIFT + SHIELD_BITS * ((isWhite ? 0 : 3) + wing))) & ((1 << SHIELD_BITS) - 1);
+	}
+}
@@ -0,0 +1,80 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+public class SearchLimits {
+	/**
+	 * Limits of a search: the maximum depth, the number of nodes and the time. The search stops at
+	 * whichever limit is reached first and returns the best move of the last completed iteration.
+	 */
+
+	private int depth = Engine.MAX_PLY;
+	private long nodes = Long.MAX_VALUE;
+	private long time;
+
+	/**
+	 * Sets the maximum depth in half moves.
+	 *
+	 * @param depth depth between 1 and {@link Engine#MAX_PLY}
+	 * @return SearchLimits
+	 */
+	public SearchLimits setDepth(int depth) {
+		if (depth < 1 || depth > Engine.MAX_PLY) {
+			throw new IllegalArgumentException("Invalid depth " + depth);
+		}
+		this.depth = depth;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of nodes searched.
+	 *
+	 * @param nodes positive number of nodes
+	 * @return SearchLimits
+	 */
+	public SearchLimits setNodes(long nodes) {
+		if (nodes < 1) {
+			throw new IllegalArgumentException("Invalid node limit " + nodes);
+		}
+		this.nodes = nodes;
+		return this;
+	}
+
+	/**
+	 * Sets the time the search may take.
+	 *
+	 * @param millis positive time in milliseconds
+	 * @return SearchLimits
+	 */
+	public SearchLimits setTime(long millis) {
+		if (millis < 1) {
+			throw new IllegalArgumentException("Invalid time limit " + millis);
+		}
+		this.time = millis;
+		return this;
+	}
+
+	/**
+	 * @return the maximum depth in half moves
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return the maximum number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return the time in milliseconds or 0 if the time is unlimited
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	@Override
+	public String toString() {
+		return "depth " + depth + " nodes " + nodes + " time " + time;
+	}
+}
@@ -0,0 +1,113 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+public class SearchOptions {
+	/**
+	 * Switches for the selective parts of the search, all enabled by default. Disabling them makes
+	 * the search slower but does not change its result at a given depth by much, so they can be
+	 * compared one at a time in benchmarks.
+	 */
+
+	private boolean nullMovePruning = true;
+	private boolean lateMoveReductions = true;
+	private boolean futilityPruning = true;
+	private boolean reverseFutilityPruning = true;
+	private boolean checkExtensions = true;
+
+	/**
+	 * Sets if the search skips a move to prove that a position is good enough for a cutoff anyway.
+	 *
+	 * @param enabled true to enable null-move pruning
+	 * @return SearchOptions
+	 */
+	public SearchOptions setNullMovePruning(boolean enabled) {
+		this.nullMovePruning = enabled;
+		return this;
+	}
+
+	/**
+	 * Sets if quiet moves late in the move ordering are searched with less depth first.
+	 *
+	 * @param enabled true to enable late move reductions
+	 * @return SearchOptions
+	 */
+	public SearchOptions setLateMoveReductions(boolean enabled) {
+		this.lateMoveReductions = enabled;
+		return this;
+	}
+
+	/**
+	 * Sets if quiet moves close to the leaves are skipped when the position is too bad for them to
+	 * reach alpha.
+	 *
+	 * @param enabled true to enable futility pruning
+	 * @return SearchOptions
+	 */
+	public SearchOptions setFutilityPruning(boolean enabled) {
+		this.futilityPruning = enabled;
+		return this;
+	}
+
+	/**
+	 * Sets if positions close to the leaves are cut off when they are so good that the opponent
+	 * will avoid them.
+	 *
+	 * @param enabled true to enable reverse futility pruning
+	 * @return SearchOptions
+	 */
+	public SearchOptions setReverseFutilityPruning(boolean enabled) {
+		this.reverseFutilityPruning = enabled;
+		return this;
+	}
+
+	/**
+	 * Sets if positions in check are searched one half move deeper.
+	 *
+	 * @param enabled true to enable check extensions
+	 * @return SearchOptions
+	 */
+	public SearchOptions setCheckExtensions(boolean enabled) {
+		this.checkExtensions = enabled;
+		return this;
+	}
+
+	/**
+	 * @return if null-move pruning is enabled
+	 */
+	public boolean isNullMovePruning() {
+		return nullMovePruning;
+	}
+
+	/**
+	 * @return if late move reductions are enabled
+	 */
+	public boolean isLateMoveReductions() {
+		return lateMoveReductions;
+	}
+
+	/**
+	 * @return if futility pruning is enabled
+	 */
+	public boolean isFutilityPruning() {
+		return futilityPruning;
+	}
+
+	/**
+	 * @return if reverse futility pruning is enabled
+	 */
+	public boolean isReverseFutilityPruning() {
+		return reverseFutilityPruning;
+	}
+
+	/**
+	 * @return if check extensions are enabled
+	 */
+	public boolean isCheckExtensions() {
+		return checkExtensions;
+	}
+
+	@Override
+	public String toString() {
+		return "null move " + nullMovePruning + " reductions " + lateMoveReductions + " futility " + futilityPruning
+				+ " reverse futility " + reverseFutilityPruning + " check extensions " + checkExtensions;
+	}
+}
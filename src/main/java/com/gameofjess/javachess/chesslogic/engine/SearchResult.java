@@ -0,0 +1,102 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Moves;
+
+public final class SearchResult {
+	/**
+	 * Result of a search: the best move, its score from the view of the side to move and the
+	 * principal variation of the last completed iteration
+	 */
+
+	private final int bestMove;
+	private final int score;
+	private final int depth;
+	private final long nodes;
+	private final long time;
+	private final int[] principalVariation;
+
+	SearchResult(int bestMove, int score, int depth, long nodes, long time, int[] principalVariation) {
+		this.bestMove = bestMove;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.time = time;
+		this.principalVariation = principalVariation;
+	}
+
+	/**
+	 * @return the best move or null if the side to move has no legal move
+	 */
+	public Move getBestMove() {
+		return hasBestMove() ? Moves.toMove(bestMove) : null;
+	}
+
+	/**
+	 * @return the encoded best move
+	 * @see Moves
+	 */
+	public int getEncodedBestMove() {
+		return bestMove;
+	}
+
+	/**
+	 * @return if the side to move has a legal move
+	 */
+	public boolean hasBestMove() {
+		return principalVariation.length > 0;
+	}
+
+	/**
+	 * @return score in centipawns from the view of the side to move
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * @return if the score is a forced mate for either side
+	 */
+	public boolean isMate() {
+		return Math.abs(score) >= Engine.MATE - Engine.MAX_PLY;
+	}
+
+	/**
+	 * @return depth of the last completed iteration
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * @return number of nodes searched
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * @return time of the search in milliseconds
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * @return the encoded moves expected from both sides, starting with the best move
+	 */
+	public int[] getPrincipalVariation() {
+		return principalVariation.clone();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("depth ").append(depth).append(" score ").append(score).append(" nodes ").append(nodes)
+				.append(" time ").append(time).append(" pv");
+		for (int move : principalVariation) {
+			builder.append(' ').append(Moves.toString(move));
+		}
+		return builder.toString();
+	}
+}
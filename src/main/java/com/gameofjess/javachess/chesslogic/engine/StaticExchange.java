@@ -0,0 +1,109 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import com.gameofjess.javachess.chesslogic.Bitboards;
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Moves;
+import com.gameofjess.javachess.chesslogic.PieceSquareTables;
+
+public final class StaticExchange {
+	/**
+	 * Static exchange evaluation: the material won or lost by a capture when both sides keep
+	 * recapturing on the destination square with their least valuable attacker and either side may
+	 * stop when recapturing would lose material. Pieces behind a capturing piece join the exchange
+	 * as soon as their line opens up. Pins and checks are not taken into account. An instance keeps
+	 * the gains of the exchange in a preallocated array, so it must not be shared between threads.
+	 */
+
+	/**
+	 * Value of the King in an exchange, which is higher than everything else so that it only
+	 * recaptures last
+	 */
+	private static final int KING_VALUE = 20000;
+
+	/**
+	 * Material balance after every capture of the exchange, which has at most 32 captures
+	 */
+	private final int[] gain = new int[32];
+
+	/**
+	 * Evaluate the exchange started by a move of the side to move
+	 * @param board Board before the move
+	 * @param move encoded capture or promotion
+	 * @return the material won in centipawns, negative if the move loses material
+	 * @see Moves
+	 */
+	public int evaluate(Board board, int move) {
+		int from = Moves.getFrom(move);
+		int to = Moves.getTo(move);
+		boolean side = board.isWhiteToMove();
+		long occupied = board.getOccupied() & ~Bitboards.bit(from);
+
+		gain[0] = 0;
+		int attacker = pieceType(board, from, side);
+		if (Moves.getFlags(move) == Moves.ENPASSANT) {
+			occupied &= ~Bitboards.bit(to + (side ? -8 : 8));
+			gain[0] = value(Bitboards.PAWN);
+		} else if (Moves.isCapture(move)) {
+			gain[0] = value(pieceType(board, to, !side));
+		}
+		if (Moves.isPromotion(move)) {
+			attacker = Moves.getPromotionType(move);
+			gain[0] += value(attacker) - value(Bitboards.PAWN);
+		}
+
+		int depth = 0;
+		while (true) {
+			side = !side;
+			long attackers = board.getAttackers(to, side, occupied) & occupied;
+			if (attackers == 0) {
+				break;
+			}
+			int type = leastValuable(board, attackers, side);
+			if (type == Bitboards.KING && (board.getAttackers(to, !side, occupied) & occupied) != 0) {
+				// the King cannot capture a defended piece
+				break;
+			}
+			depth++;
+			// capturing the piece that has just captured, which may be captured in turn
+			gain[depth] = value(attacker) - gain[depth - 1];
+			if (Math.max(-gain[depth - 1], gain[depth]) < 0) {
+				// the exchange is lost for whoever captures, no matter what follows
+				break;
+			}
+			occupied &= ~Bitboards.bit(Long.numberOfTrailingZeros(attackers & board.getBitboard(type, side)));
+			attacker = type;
+		}
+		while (depth > 0) {
+			gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+			depth--;
+		}
+		return gain[0];
+	}
+
+	/**
+	 * @return the material value of the piece type as used by the evaluation, apart from the King
+	 * @see PieceSquareTables#value(int)
+	 */
+	private static int value(int type) {
+		return type == Bitboards.KING ? KING_VALUE : PieceSquareTables.value(type);
+	}
+
+	private static int leastValuable(Board board, long attackers, boolean isWhite) {
+		for (int type = Bitboards.PAWN; type < Bitboards.KING; type++) {
+			if ((attackers & board.getBitboard(type, isWhite)) != 0) {
+				return type;
+			}
+		}
+		return Bitboards.KING;
+	}
+
+	private static int pieceType(Board board, int square, boolean isWhite) {
+		long bit = Bitboards.bit(square);
+		for (int type = Bitboards.PAWN; type <= Bitboards.KING; type++) {
+			if ((board.getBitboard(type, isWhite) & bit) != 0) {
+				return type;
+			}
+		}
+		throw new IllegalArgumentException("No piece on " + square);
+	}
+}
@@ -1,16 +1,12 @@
 package com.gameofjess.javachess.chesslogic.pieces;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.gameofjess.javachess.chesslogic.Bitboards;
 import com.gameofjess.javachess.chesslogic.Board;
-import com.gameofjess.javachess.chesslogic.Move;
-import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
 import com.gameofjess.javachess.helper.game.Pieces;
 
 import javafx.scene.image.Image;
@@ -42,214 +38,44 @@ public class King extends Piece {
 	}
 
 	@Override
-	public Move[] getMoves(boolean checking) {
+	public void generateMoves(MoveList moves, boolean checking) {
 		log.trace("getting moves");
-		List<Move> moves = new ArrayList<>();
-		Position position = board.getPosition(this);
+		int square = board.getSquare(this);
+		int y = Bitboards.getY(square);
 
-		Position testPosition;
-		Piece testLocation;
-		// up
-		testPosition = new Position(position.getX(), position.getY() + 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getY() + 1 < 8 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX(), position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// up, right
-		testPosition = new Position(position.getX() + 1, position.getY() + 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() + 1 < 8 && position.getY() + 1 < 8 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() + 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// right
-		testPosition = new Position(position.getX() + 1, position.getY());
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() + 1 < 8 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() + 1, position.getY());
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// down, right
-		testPosition = new Position(position.getX() + 1, position.getY() - 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() + 1 < 8 && position.getY() - 1 >= 0 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() + 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// down
-		testPosition = new Position(position.getX(), position.getY() - 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getY() - 1 >= 0 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX(), position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// down, left
-		testPosition = new Position(position.getX() - 1, position.getY() - 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() - 1 >= 0 && position.getY() - 1 >= 0 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() - 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// links
-		testPosition = new Position(position.getX() - 1, position.getY());
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() - 1 >= 0 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() - 1, position.getY());
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		// up, left
-		testPosition = new Position(position.getX() - 1, position.getY() + 1);
-		testLocation = board.getBoardMap().get(testPosition);
-		if (position.getX() - 1 >= 0 && position.getY() + 1 < 8 && (testLocation == null || testLocation.isWhite != isWhite)) {
-			testPosition = new Position(position.getX() - 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-					if (!checking || !checkCheckMove(testMove)) {
-						moves.add(testMove);
-					}
-			} else if (testLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
+		long targets = Bitboards.kingAttacks(square) & ~board.getOccupancy(isWhite);
+		if (checking) {
+			targets = board.getSafeKingTargets(square, targets, isWhite);
 		}
+		addMoves(moves, square, targets);
 
+		// castling is not allowed out of check or through an attacked square
+		boolean castlingAllowed = castling && !board.isSquareAttacked(square, !isWhite);
 
 		// castling short
-		if (castling && board.getBoardMap().get(new Position(1, position.getY())) == null && board.getBoardMap().get(new Position(2, position.getY())) == null) {
-			Position rookPosition = new Position(0, position.getY());
-			Piece rook = board.getBoardMap().get(rookPosition);
-			if (rook instanceof Rook) {
-				if (((Rook) rook).isCastling()) {
-					Move test_move = new Move(position, new Position(1, position.getY()), true, rookPosition);
-					if (!checkCheckMove(test_move) || !checking){
-						moves.add(test_move);
-					}
-				}
+		if (castlingAllowed && !board.isOccupied(Bitboards.square(1, y)) && !board.isOccupied(Bitboards.square(2, y))
+				&& !board.isSquareAttacked(Bitboards.square(2, y), !isWhite)) {
+			Piece rook = board.getPiece(Bitboards.square(0, y));
+			if (rook instanceof Rook && rook.isWhite == isWhite && ((Rook) rook).isCastling()
+					&& (!checking || board.getSafeKingTargets(square, Bitboards.bit(Bitboards.square(1, y)), isWhite) != 0)) {
+				moves.add(Moves.encode(square, Bitboards.square(1, y), Moves.CASTLING));
 			}
 		}
 
 		//castling long
-		if (castling && board.getBoardMap().get(new Position(4, position.getY())) == null && board.getBoardMap().get(new Position(5, position.getY())) == null
-				&& board.getBoardMap().get(new Position(6, position.getY())) == null) {
-			Position rookPosition = new Position(7, position.getY());
-			Piece rook = board.getBoardMap().get(rookPosition);
-			if (rook instanceof Rook) {
-				if (((Rook) rook).isCastling()) {
-					Move test_move = new Move(position, new Position(5, position.getY()), true, rookPosition);
-					if (!checkCheckMove(test_move) || !checking){
-						moves.add(test_move);
-					}
-				}
+		if (castlingAllowed && !board.isOccupied(Bitboards.square(4, y)) && !board.isOccupied(Bitboards.square(5, y))
+				&& !board.isOccupied(Bitboards.square(6, y)) && !board.isSquareAttacked(Bitboards.square(4, y), !isWhite)) {
+			Piece rook = board.getPiece(Bitboards.square(7, y));
+			if (rook instanceof Rook && rook.isWhite == isWhite && ((Rook) rook).isCastling()
+					&& (!checking || board.getSafeKingTargets(square, Bitboards.bit(Bitboards.square(5, y)), isWhite) != 0)) {
+				moves.add(Moves.encode(square, Bitboards.square(5, y), Moves.CASTLING));
 			}
 		}
-
-		return moves.toArray(new Move[0]);
 	}
 
 	@Override
-	public void makeMove(Move move) {
-		log.debug("making move");
-		castling = false;
-
-		if (move.getCastling() != null) {
-				Rook rook = (Rook) board.getBoardMap().get(move.getCastling());
-				King king = (King) board.getBoardMap().get(move.getOrigin());
-				board.boardMapRemove(move.getOrigin());
-				board.boardMapRemove(move.getCastling());
-				board.boardMapAdd(move.getDestination(), king);
-				if (move.getCastling().getX() == 0) board.boardMapAdd(new Position(2, move.getCastling().getY()), rook);
-				else board.boardMapAdd(new Position(4, move.getCastling().getY()), rook);
-				rook.setCastling(false);
-				this.castling = false;
-		}
-
-		if (move.getCapturePosition() != null) {
-			board.capture(move.getCapturePosition());
-		}
-		board.boardMapRemove(board.getPosition(this));
-		board.boardMapAdd(move.getDestination(), this);
-		log.debug("current board:\n{}", board);
+	public int getType() {
+		return Bitboards.KING;
 	}
 
     @Override
@@ -268,23 +94,31 @@ public class King extends Piece {
 	 */
 	public boolean checkCheck(){
 		log.trace("check check King");
-		Position position = getPosition();
-		log.trace(position);
-
-		return board.getBoardMap().values().stream().parallel().anyMatch(piece ->
-			Arrays.stream(piece.getMoves(false)).parallel().map(Move::getCapturePosition).filter(Objects::nonNull).anyMatch(position2 -> position2.equals(position))
-		);
+		return board.isSquareAttacked(getPosition(), !isWhite);
 	}
 
 	/**
-	 * Check if the King is Checkmate
+	 * Check if the King is Checkmate, which is if it is in check and its side has no legal move
 	 * @return boolean Checkmate
 	 */
 	public boolean checkCheckMate(){
 		log.trace("Checking mate");
-		return board.getBoardMap().values().parallelStream().allMatch(piece ->
-			piece.isWhite != this.isWhite || piece.getMoves().length == 0
-		);
+		return checkCheck() && !board.hasAnyLegalMove(isWhite);
+	}
+
+	/**
+	 * @return if the King has not moved yet and may still castle
+	 */
+	public boolean isCastling() {
+		return castling;
+	}
+
+	/**
+	 * @param castling if the King may still castle
+	 */
+	public void setCastling(boolean castling) {
+		this.castling = castling;
+		board.updateCastlingRights();
 	}
 
 	@Override
@@ -1,14 +1,11 @@
 package com.gameofjess.javachess.chesslogic.pieces;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.gameofjess.javachess.chesslogic.Bitboards;
 import com.gameofjess.javachess.chesslogic.Board;
-import com.gameofjess.javachess.chesslogic.Move;
-import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.chesslogic.MoveList;
 import com.gameofjess.javachess.helper.game.Pieces;
 
 import javafx.scene.image.Image;
@@ -27,153 +24,21 @@ public class Knight extends Piece {
     }
 
 	@Override
-    public Move[] getMoves(boolean checking) {
+	public void generateMoves(MoveList moves, boolean checking) {
 		log.trace("getting moves");
-        List<Move> moves = new ArrayList<>();
-		Position position = board.getPosition(this);
-
+		int square = board.getSquare(this);
 
-		Position testPosition;
-		Piece testLocation;
-        
-		// up, right
-		testPosition = new Position(position.getX() + 1, position.getY() + 2);
-		if (testPosition.getX() < 8 && testPosition.getY() < 8) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-        // right, up
-		testPosition = new Position(position.getX() + 2, position.getY() + 1);
-		if (testPosition.getX() < 8 && testPosition.getY() < 8) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-        //right, down
-        testPosition = new Position(position.getX() + 2, position.getY() - 1);
-		if (testPosition.getX() < 8 && testPosition.getY() >= 0) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		//down, right
-        testPosition = new Position(position.getX() + 1, position.getY() - 2);
-		if (testPosition.getX() < 8 && testPosition.getY() >= 0) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		//down, right
-        testPosition = new Position(position.getX() - 1, position.getY() - 2);
-		if (testPosition.getX() >= 0 && testPosition.getY() >= 0) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		//left, down
-        testPosition = new Position(position.getX() - 2, position.getY() - 1);
-		if (testPosition.getX() >= 0 && testPosition.getY() >= 0) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
+		long targets = Bitboards.knightAttacks(square) & ~board.getOccupancy(isWhite);
+		if (checking) {
+			targets &= board.getLegalMask(square, isWhite);
 		}
-		//left, up
-        testPosition = new Position(position.getX() - 2, position.getY() + 1);
-		if (testPosition.getX() >= 0 && testPosition.getY() < 8) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-		//up, left
-        testPosition = new Position(position.getX() - 1, position.getY() + 2);
-		if (testPosition.getX() >= 0 && testPosition.getY() < 8) {
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-			else if (testLocation.isWhite != isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-		}
-        return moves.toArray(new Move[0]);
-    }
+		addMoves(moves, square, targets);
+	}
+
+	@Override
+	public int getType() {
+		return Bitboards.KNIGHT;
+	}
 
     @Override
     public Pieces getEnumValue() {
@@ -1,15 +1,12 @@
 package com.gameofjess.javachess.chesslogic.pieces;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.gameofjess.javachess.chesslogic.Bitboards;
 import com.gameofjess.javachess.chesslogic.Board;
-import com.gameofjess.javachess.chesslogic.Move;
-import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
 import com.gameofjess.javachess.helper.game.Pieces;
 
 import javafx.scene.image.Image;
@@ -27,6 +24,14 @@ public class Pawn extends Piece {
 		return enpassant;
 	}
 
+	/**
+	 * @param enpassant if the Pawn can be captured by enpassant
+	 */
+	public void setEnpassant(boolean enpassant) {
+		this.enpassant = enpassant;
+		board.invalidate();
+	}
+
 	/**
 	 * Constructor
 	 * @param Board to be linked
@@ -49,220 +54,75 @@ public class Pawn extends Piece {
 	}
 
 	@Override
-	public Move[] getMoves(boolean checking) {
+	public void generateMoves(MoveList moves, boolean checking) {
 		log.trace("getting moves pawn");
-		List<Move> moves = new ArrayList<>();
-		Position position = board.getPosition(this);
+		int square = board.getSquare(this);
+		int forward = isWhite ? 8 : -8;
+		int startRow = isWhite ? 1 : 6;
 
+		long legalMask = checking ? board.getLegalMask(square, isWhite) : ~0L;
 
-		Position testPosition;
-		Piece testLocation;
-		if (isWhite) {
-			//one forward
-			testPosition = new Position(position.getX(), position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					if (testPosition.getY() == 7) {
-						moves.add(new Move(position, testPosition, Bishop.class.getName()));
-						moves.add(new Move(position, testPosition, Knight.class.getName()));
-						moves.add(new Move(position, testPosition, Queen.class.getName()));
-						moves.add(new Move(position, testPosition, Rook.class.getName()));
-					}
-					else {
-						moves.add(testMove);
-					}
-				}
-				//two forward
-				testPosition = new Position(position.getX(), position.getY() + 2);
-				testLocation = board.getBoardMap().get(testPosition);
-				if (position.getY() == 1 && testLocation == null) {
-					testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
-			}
-			//beat right
-			testPosition = new Position(position.getX() + 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation != null && !testLocation.isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (testPosition.getY() == 7) {
-					moves.add(new Move(position, testPosition, Bishop.class.getName()));
-					moves.add(new Move(position, testPosition, Knight.class.getName()));
-					moves.add(new Move(position, testPosition, Queen.class.getName()));
-					moves.add(new Move(position, testPosition, Rook.class.getName()));
-				}
-				else if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
+		//one forward
+		int testSquare = square + forward;
+		if (!board.isOccupied(testSquare)) {
+			if ((legalMask & Bitboards.bit(testSquare)) != 0) {
+				addPawnMove(moves, square, testSquare, false);
 			}
-			//beat left
-			testPosition = new Position(position.getX() - 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation != null && !testLocation.isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					if (testPosition.getY() == 7) {
-						moves.add(new Move(position, testPosition, Bishop.class.getName()));
-						moves.add(new Move(position, testPosition, Knight.class.getName()));
-						moves.add(new Move(position, testPosition, Queen.class.getName()));
-						moves.add(new Move(position, testPosition, Rook.class.getName()));
-					}
-					else {
-						moves.add(testMove);
-					}
-				}
+			//two forward
+			testSquare += forward;
+			if (Bitboards.getY(square) == startRow && !board.isOccupied(testSquare) && (legalMask & Bitboards.bit(testSquare)) != 0) {
+				moves.add(Moves.encode(square, testSquare, Moves.DOUBLE_PUSH));
 			}
+		}
 
-            // enpassant right white
-			testPosition = new Position(position.getX() + 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			Position enpassantPosition = new Position(position.getX() + 1, position.getY());
-			Piece enpassantLocation = board.getBoardMap().get(enpassantPosition);
-
-			if (testLocation == null && enpassantLocation instanceof Pawn && ((Pawn) enpassantLocation).isEnpassant()
-					&& enpassantLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, enpassantPosition, true);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-
-            // enpassant links weiss
-			testPosition = new Position(position.getX() - 1, position.getY() + 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			enpassantPosition = new Position(position.getX() - 1, position.getY());
-			enpassantLocation = board.getBoardMap().get(enpassantPosition);
-
-			if (testLocation == null && enpassantLocation instanceof Pawn && ((Pawn) enpassantLocation).isEnpassant()
-					&& enpassantLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, enpassantPosition, true);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
+		//beat right and left
+		long targets = Bitboards.pawnAttacks(square, isWhite) & board.getOccupancy(!isWhite) & legalMask;
+		while (targets != 0) {
+			testSquare = Long.numberOfTrailingZeros(targets);
+			targets &= targets - 1;
+			addPawnMove(moves, square, testSquare, true);
 		}
 
-		// SCHWARZ
-		else {
-			//one up
-			testPosition = new Position(position.getX(), position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation == null) {
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					if (testPosition.getY() == 7) {
-						moves.add(new Move(position, testPosition, Bishop.class.getName()));
-						moves.add(new Move(position, testPosition, Knight.class.getName()));
-						moves.add(new Move(position, testPosition, Queen.class.getName()));
-						moves.add(new Move(position, testPosition, Rook.class.getName()));
-					}
-					else {
-						moves.add(testMove);
-					}
-				}
-				//two forward
-				testPosition = new Position(position.getX(), position.getY() - 2);
-				testLocation = board.getBoardMap().get(testPosition);
-				if (position.getY() == 6 && testLocation == null) {
-					testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
+		// enpassant right and left
+		long enpassantPawns = board.getBitboard(Bitboards.PAWN, !isWhite);
+		for (int dx = -1; dx <= 1; dx += 2) {
+			int x = Bitboards.getX(square) + dx;
+			if (x < 0 || x > 7) {
+				continue;
 			}
-			//beat right
-			testPosition = new Position(position.getX() + 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation != null && testLocation.isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					if (testPosition.getY() == 7) {
-						moves.add(new Move(position, testPosition, Bishop.class.getName()));
-						moves.add(new Move(position, testPosition, Knight.class.getName()));
-						moves.add(new Move(position, testPosition, Queen.class.getName()));
-						moves.add(new Move(position, testPosition, Rook.class.getName()));
-					}
-					else {
-						moves.add(testMove);
-					}
-				}
+			int enpassantSquare = Bitboards.square(x, Bitboards.getY(square));
+			if ((enpassantPawns & Bitboards.bit(enpassantSquare)) == 0) {
+				continue;
 			}
-			//beat left
-			testPosition = new Position(position.getX() - 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			if (testLocation != null && testLocation.isWhite) {
-				Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					if (testPosition.getY() == 7) {
-						moves.add(new Move(position, testPosition, Bishop.class.getName()));
-						moves.add(new Move(position, testPosition, Knight.class.getName()));
-						moves.add(new Move(position, testPosition, Queen.class.getName()));
-						moves.add(new Move(position, testPosition, Rook.class.getName()));
-					}
-					else {
-						moves.add(testMove);
-					}
-				}
-			}
-            // enpassant right white
-			testPosition = new Position(position.getX() + 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			Position enpassantPosition = new Position(position.getX() + 1, position.getY());
-			Piece enpassantLocation = board.getBoardMap().get(enpassantPosition);
-
-			if (testLocation == null && enpassantLocation instanceof Pawn && ((Pawn) enpassantLocation).isEnpassant()
-					&& enpassantLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, enpassantPosition, true);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-			}
-
-            // enpassant links weiss
-			testPosition = new Position(position.getX() - 1, position.getY() - 1);
-			testLocation = board.getBoardMap().get(testPosition);
-			enpassantPosition = new Position(position.getX() - 1, position.getY());
-			enpassantLocation = board.getBoardMap().get(enpassantPosition);
-
-			if (testLocation == null && enpassantLocation instanceof Pawn && ((Pawn) enpassantLocation).isEnpassant()
-					&& enpassantLocation.isWhite() != isWhite) {
-				Move testMove = new Move(position, testPosition, enpassantPosition, true);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
+			testSquare = enpassantSquare + forward;
+			if (!board.isOccupied(testSquare) && ((Pawn) board.getPiece(enpassantSquare)).isEnpassant()
+					&& (!checking || board.isEnpassantLegal(square, testSquare, enpassantSquare, isWhite))) {
+				moves.add(Moves.encode(square, testSquare, Moves.ENPASSANT));
 			}
 		}
-		return moves.toArray(new Move[0]);
 	}
 
-	@Override
-	public void makeMove(Move move){
-		log.trace("making move");
-		enpassant = move.getEnpassant();
-		if (move.getCapturePosition() != null) {
-			board.capture(move.getCapturePosition());
-		}
-		if (move.getPromotion() == null){
-			enpassant = move.getDestination().getY() - move.getOrigin().getY() != 1;
-			board.boardMapRemove(board.getPosition(this));
-			board.boardMapAdd(move.getDestination(), this);
+	/**
+	 * Add a pawn move, or the four promotion moves if the pawn reaches the last row
+	 */
+	private void addPawnMove(MoveList moves, int square, int testSquare, boolean capture) {
+		int y = Bitboards.getY(testSquare);
+		if (y == 7 || y == 0) {
+			moves.add(Moves.encodePromotion(square, testSquare, Bitboards.BISHOP, capture));
+			moves.add(Moves.encodePromotion(square, testSquare, Bitboards.KNIGHT, capture));
+			moves.add(Moves.encodePromotion(square, testSquare, Bitboards.QUEEN, capture));
+			moves.add(Moves.encodePromotion(square, testSquare, Bitboards.ROOK, capture));
 		}
 		else {
-            board.boardMapRemove(getPosition());
-			try {
-				Piece piece = (Piece) Class.forName(move.getPromotion()).getConstructor(Board.class, boolean.class).newInstance(board, this.isWhite);
-                board.boardMapAdd(move.getDestination(), piece);
-				log.debug(board);
-            } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException | ClassNotFoundException e) {
-                throw new RuntimeException(e);
-			}
+			moves.add(Moves.encode(square, testSquare, capture ? Moves.CAPTURE : Moves.QUIET));
 		}
 	}
 
+	@Override
+	public int getType() {
+		return Bitboards.PAWN;
+	}
+
     @Override
     public Pieces getEnumValue() {
         return Pieces.PAWN;
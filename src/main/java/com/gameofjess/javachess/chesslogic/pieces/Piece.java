@@ -3,8 +3,11 @@ package com.gameofjess.javachess.chesslogic.pieces;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.gameofjess.javachess.chesslogic.Bitboards;
 import com.gameofjess.javachess.chesslogic.Board;
 import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
 import com.gameofjess.javachess.chesslogic.Position;
 import com.gameofjess.javachess.helper.game.Pieces;
 
@@ -19,6 +22,12 @@ public abstract class Piece{
     protected transient Board board;
     protected boolean isWhite;
     protected String fen;
+    /**
+     * Square of the piece on its Board or -1, and its index in the piece list of its color.
+     * Both are maintained by the Board.
+     */
+    private int square = -1;
+    private int listIndex = -1;
 
     /**
      * Constructor
@@ -36,31 +45,28 @@ public abstract class Piece{
      * @param checking enable/disable moves that put the king into check
      * @return array of move objects
      */
-    public abstract Move[] getMoves(boolean checking);
-
-	public abstract Piece getClone(Board board);
+    public Move[] getMoves(boolean checking) {
+        MoveList moves = new MoveList();
+        generateMoves(moves, checking);
+        return moves.toMoves();
+    }
 
     /**
-     * get all legal moves
-     * @return Array of move objects
+     * Add the possible moves encoded to a list
+     * @param moves list to add the moves to
+     * @param checking enable/disable moves that put the king into check
+     * @see Moves
      */
-    public Move[] getMoves() {
-        return getMoves(true);
-    }
+    public abstract void generateMoves(MoveList moves, boolean checking);
 
+	public abstract Piece getClone(Board board);
 
     /**
-     * Make a given move on the Board
-     * @param move to execute
+     * get all legal moves, taken from the legal moves cached by the Board
+     * @return Array of move objects
      */
-    public void makeMove(Move move) {
-		log.trace("making move");
-        if (move.getCapturePosition() != null) {
-            board.capture(move.getCapturePosition());
-        }
-        board.boardMapRemove(board.getPosition(this));
-        board.boardMapAdd(move.getDestination(), this);
-        log.debug("current board:\n{}", board);
+    public Move[] getMoves() {
+        return board.getLegalMoves(this);
     }
 
 
@@ -71,6 +77,12 @@ public abstract class Piece{
         return " " + fen + "  ";
     }
 
+    /**
+     * Method that returns the piece type used to index the bitboards of the Board
+     * @see Bitboards
+     */
+    public abstract int getType();
+
     /**
      * Method that returns the corresponding value in the Pieces-enum
      */
@@ -93,20 +105,47 @@ public abstract class Piece{
 	}
 
     /**
-     * Checks if a move puts the King into check
-     * @param move to be checked
-     * @return boolean if move is checking
-     */
-	boolean checkCheckMove(Move move){
-		log.trace("Check Check for move generation");
-		Board cloneBoard = new Board(board);
-		log.trace("cloned board!");
-		cloneBoard.getBoardMap().get(move.getOrigin()).makeMove(move);
-		if (isWhite) {
-			return cloneBoard.getKingWhite().checkCheck();
-		}
-		else{
-			return cloneBoard.getKingBlack().checkCheck();
-		}
-	}
+     * @return square index of the piece on its Board or -1 if it is not on the Board
+     */
+    public int getSquare() {
+        return square;
+    }
+
+    /**
+     * Only to be called by the Board when the piece is put onto or removed from a square
+     * @param square square index between 0 and 63 or -1
+     */
+    public void setSquare(int square) {
+        this.square = square;
+    }
+
+    /**
+     * @return index of the piece in the piece list of its color on the Board
+     */
+    public int getListIndex() {
+        return listIndex;
+    }
+
+    /**
+     * Only to be called by the Board when the piece is added to or moved within a piece list
+     * @param listIndex index in the piece list or -1
+     */
+    public void setListIndex(int listIndex) {
+        this.listIndex = listIndex;
+    }
+
+    /**
+     * Add a normal or capture move for every square in the given bitboard
+     * @param moves list to add the moves to
+     * @param square square index of the origin of the moves
+     * @param targets bitboard of destination squares
+     */
+    protected void addMoves(MoveList moves, int square, long targets) {
+        long enemies = board.getOccupancy(!isWhite);
+        while (targets != 0) {
+            int destination = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(Moves.encode(square, destination, (enemies & Bitboards.bit(destination)) != 0 ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
 }
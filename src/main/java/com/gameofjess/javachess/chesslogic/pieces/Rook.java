@@ -1,14 +1,11 @@
 package com.gameofjess.javachess.chesslogic.pieces;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.gameofjess.javachess.chesslogic.Bitboards;
 import com.gameofjess.javachess.chesslogic.Board;
-import com.gameofjess.javachess.chesslogic.Move;
-import com.gameofjess.javachess.chesslogic.Position;
+import com.gameofjess.javachess.chesslogic.MoveList;
 import com.gameofjess.javachess.helper.game.Pieces;
 
 import javafx.scene.image.Image;
@@ -18,6 +15,15 @@ public class Rook extends Piece {
 
     private boolean castling;
 
+	/**
+	 * Constructor for a Rook that can not castle, e.g. after a promotion
+	 * @param Board to be linked
+	 * @param isWhite color of the piece
+	 */
+	public Rook(Board Board, boolean isWhite) {
+		this(Board, isWhite, false);
+	}
+
 	/**
 	 * Constructor
 	 * @param Board to be linked
@@ -26,124 +32,25 @@ public class Rook extends Piece {
 	 */
     public Rook(Board Board, boolean isWhite, boolean castling) {
         super(Board, isWhite);
-        this.setCastling(castling);
+        this.castling = castling;
     }
 
 	@Override
-    public Move[] getMoves(boolean checking) {
+	public void generateMoves(MoveList moves, boolean checking) {
 		log.trace("getting moves rook");
-        List<Move> moves = new ArrayList<>();
-		Position position = board.getPosition(this);
-
-		//right
-		for (int j = 1; j < 8; j++) {
-			Position testPosition = new Position(position.getX() + j, position.getY());
-			if (testPosition.getX() < 8) {
-				Piece testLocation = board.getBoardMap().get(testPosition);
-				if(testLocation == null){
-					Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
-				else if (testLocation.isWhite() == isWhite) {
-					break;
-				}
-				else if(testLocation.isWhite() != isWhite){
-					Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-					break;
-				}
-			}
-			else break;
-		}
-		//links
-		for (int j = 1; j < 8; j++) {
-			Position testPosition = new Position(position.getX() - j, position.getY());
-			if (testPosition.getX() >= 0) {
-				Piece testLocation = board.getBoardMap().get(testPosition);
-				if(testLocation == null){
-					Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
-				else if (testLocation.isWhite() == isWhite) {
-					break;
-				}
-				else if(testLocation.isWhite() != isWhite){
-					Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-					break;
-				}
-			}
-			else break;
-		}
-		//up
-		for (int j = 1; j < 8; j++) {
-			Position testPosition = new Position(position.getX(), position.getY() + j);
-			if (testPosition.getY() < 8) {
-				Piece testLocation = board.getBoardMap().get(testPosition);
-				if(testLocation == null){
-					Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
-				else if (testLocation.isWhite() == isWhite) {
-					break;
-				}
-				else if(testLocation.isWhite() != isWhite){
-					Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-					break;
-				}
-			}
-			else break;
-		}
-		//down
-		for (int j = 1; j < 8; j++) {
-			Position testPosition = new Position(position.getX(), position.getY() - j);
-			if (testPosition.getY() >= 0) {
-				Piece testLocation = board.getBoardMap().get(testPosition);
-				if(testLocation == null){
-				Move testMove = new Move(position, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-				}
-				else if (testLocation.isWhite() == isWhite) {
-					break;
-				}
-				else if(testLocation.isWhite() != isWhite){
-					Move testMove = new Move(position, testPosition, testPosition);
-				if (!checking || !checkCheckMove(testMove)) {
-					moves.add(testMove);
-				}
-					break;
-				}
-			}
-			else break;
+		int square = board.getSquare(this);
+
+		long targets = Bitboards.rookAttacks(square, board.getOccupied()) & ~board.getOccupancy(isWhite);
+		if (checking) {
+			targets &= board.getLegalMask(square, isWhite);
 		}
-        return moves.toArray(new Move[0]);
-    }
+		addMoves(moves, square, targets);
+	}
 
 	@Override
-    public void makeMove(Move move) {
-		log.trace("making move");
-		setCastling(false);
-		if (move.getCapturePosition() != null) {
-			board.capture(move.getCapturePosition());
-		}
-		board.boardMapRemove(board.getPosition(this));
-        board.boardMapAdd(move.getDestination() , this);
-    }
+	public int getType() {
+		return Bitboards.ROOK;
+	}
 
     @Override
     public Pieces getEnumValue() {
@@ -167,5 +74,6 @@ public class Rook extends Piece {
 
 	public void setCastling(boolean castling) {
 		this.castling = castling;
+		board.updateCastlingRights();
 	}
 }
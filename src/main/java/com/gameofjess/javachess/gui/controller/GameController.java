@@ -144,12 +144,13 @@ public class GameController extends Controller {
     private void setupPieceHandler() {
         boardPane.resetEventHandlers();
         log.debug("Setting up piece handler");
-        board.getBoardMap().entrySet().parallelStream().filter(entry -> {
-            Piece piece = board.getBoardMap().get(entry.getKey());
-            return (piece.isWhite() && color == Color.WHITE) || (!piece.isWhite() && color == Color.BLACK);
-        }).forEach(entry -> {
-            Position pos = entry.getKey();
-            Piece piece = board.getBoardMap().get(pos);
+        if (color != Color.WHITE && color != Color.BLACK) {
+            // the color has not been assigned by the server yet
+            return;
+        }
+        // Move generation caches data of the current position on the board, so the pieces are handled one after another
+        board.getPieces(color == Color.WHITE).forEach(piece -> {
+            Position pos = piece.getPosition();
             Move[] possibleMoves = piece.getMoves();
             boardPane.setPieceEventHandlerByCell(selectMouseEvent -> {
                 log.debug("Piece at Position ({}|{}) Clicked", pos.getX(), pos.getY());
@@ -171,9 +172,7 @@ public class GameController extends Controller {
                             // Add event handlers to destination markers
                             boardPane.setPieceEventHandlerByCell(moveMouseEvent -> {
                                 log.debug("Destination at ({}|{}) clicked", destX, destY);
-                                Piece piece1 = board.getBoardMap().get(pos);
-
-                                Piece capturedPiece = board.getBoardMap().get(m.getCapturePosition());
+                                Piece capturedPiece = m.getCapturePosition() != null ? board.getPiece(m.getCapturePosition()) : null;
                                 if (capturedPiece != null) {
                                     capturedPiecesGrid.add(capturedPiece);
                                 }
@@ -208,7 +207,7 @@ public class GameController extends Controller {
                                         m.changePromotion(Queen.class.getName());
                                         main.getChildren().remove(promotionSelectView);
 
-                                        piece1.makeMove(m);
+                                        board.makeMove(m);
 
                                         boardPane.resetStatus();
                                         highlightCheck();
@@ -226,7 +225,7 @@ public class GameController extends Controller {
                                         m.changePromotion(Knight.class.getName());
                                         main.getChildren().remove(promotionSelectView);
 
-                                        piece1.makeMove(m);
+                                        board.makeMove(m);
 
                                         boardPane.resetStatus();
                                         highlightCheck();
@@ -244,7 +243,7 @@ public class GameController extends Controller {
                                         m.changePromotion(Rook.class.getName());
                                         main.getChildren().remove(promotionSelectView);
 
-                                        piece1.makeMove(m);
+                                        board.makeMove(m);
 
                                         boardPane.resetStatus();
                                         highlightCheck();
@@ -262,7 +261,7 @@ public class GameController extends Controller {
                                         m.changePromotion(Bishop.class.getName());
                                         main.getChildren().remove(promotionSelectView);
 
-                                        piece1.makeMove(m);
+                                        board.makeMove(m);
 
                                         boardPane.resetStatus();
                                         highlightCheck();
@@ -276,7 +275,7 @@ public class GameController extends Controller {
                                     });
 
                                 } else {
-                                    piece1.makeMove(m);
+                                    board.makeMove(m);
 
                                     boardPane.resetStatus();
                                     highlightCheck();
@@ -388,18 +387,17 @@ public class GameController extends Controller {
      * Highlight king if in check.
      */
     private void highlightCheck() {
-        Board clonedBoard = new Board(board);
-
-        boolean blackKingCheck = clonedBoard.getKingBlack().checkCheck();
+        // checking for check does not change the board, so there is no need to clone it
+        boolean blackKingCheck = board.getKingBlack().checkCheck();
 
-        int blackKingRow = clonedBoard.getKingBlack().getPosition().getY();
-        int blackKingColumn = clonedBoard.getKingBlack().getPosition().getX();
+        int blackKingRow = board.getKingBlack().getPosition().getY();
+        int blackKingColumn = board.getKingBlack().getPosition().getX();
         boardPane.setCheckStatusByCell(blackKingCheck, blackKingRow, blackKingColumn);
 
-        boolean whiteKingCheck = clonedBoard.getKingWhite().checkCheck();
+        boolean whiteKingCheck = board.getKingWhite().checkCheck();
 
-        int whiteKingRow = clonedBoard.getKingWhite().getPosition().getY();
-        int whiteKingColumn = clonedBoard.getKingWhite().getPosition().getX();
+        int whiteKingRow = board.getKingWhite().getPosition().getY();
+        int whiteKingColumn = board.getKingWhite().getPosition().getX();
         boardPane.setCheckStatusByCell(whiteKingCheck, whiteKingRow, whiteKingColumn);
     }
 
@@ -436,13 +434,13 @@ public class GameController extends Controller {
             case NEWMOVE -> {
                 Move m = new Gson().fromJson(messageStr, Move.class);
 
-                Piece capturedPiece = board.getBoardMap().get(m.getCapturePosition());
+                Piece capturedPiece = m.getCapturePosition() != null ? board.getPiece(m.getCapturePosition()) : null;
 
                 if (capturedPiece != null) {
                     Platform.runLater(() -> capturedPiecesGrid.add(capturedPiece));
                 }
 
-                board.getBoardMap().get(m.getOrigin()).makeMove(m);
+                board.makeMove(m);
 
                 updateTurnStatus(false);
 
@@ -522,6 +520,7 @@ public class GameController extends Controller {
                 chatHistory.setText(chatHistory.getText() + formattedDate + " - INFO: " + messageStr + "\n");
             });
             case CHECKMATE -> Platform.runLater(() -> endGame(username + " has won!"));
+            case DRAW -> Platform.runLater(() -> endGame("Draw! " + messageStr));
             default -> throw new IllegalArgumentException("Received message is not of any recognized type!");
         }
     }
@@ -42,7 +42,7 @@ public class ClientMessage implements Message {
      */
     public ClientMessage(String message, MessageType type) {
         log.trace("Constructing client message with message {} and type {}.", message, type);
-        if (type == MessageType.SERVERINFO || type == MessageType.SERVERERROR || type == MessageType.BEGINMATCH || type == MessageType.USERLIST || type == MessageType.COLORINFO) {
+        if (type == MessageType.SERVERINFO || type == MessageType.SERVERERROR || type == MessageType.BEGINMATCH || type == MessageType.USERLIST || type == MessageType.COLORINFO || type == MessageType.DRAW) {
             throw new IllegalArgumentException("A ClientMessage may not be of type " + type);
         }
         this.message = message;
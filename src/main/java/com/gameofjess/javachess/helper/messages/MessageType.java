@@ -15,9 +15,12 @@ package com.gameofjess.javachess.helper.messages;
  * CHATMESSAGE: This message type transmits new chat messages.
  *
  * NEWMOVE: This message type is used to transmit a new move.
+ *
+ * DRAW: This message type is used to announce that the game ended in a draw. The message contains
+ * the reason of the draw. This type may only be used in ServerMessage!
  */
 public enum MessageType {
 
-    SERVERINFO, SERVERERROR, BEGINMATCH, CHATMESSAGE, NEWMOVE, USERLIST, COLORINFO, CHECKMATE;
+    SERVERINFO, SERVERERROR, BEGINMATCH, CHATMESSAGE, NEWMOVE, USERLIST, COLORINFO, CHECKMATE, DRAW;
 
 }
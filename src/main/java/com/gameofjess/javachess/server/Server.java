@@ -13,7 +13,9 @@ import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
 import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.BoardSnapshot;
 import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Moves;
 import com.gameofjess.javachess.helper.game.Color;
 import com.gameofjess.javachess.helper.messages.ClientMessage;
 import com.gameofjess.javachess.helper.messages.MessageType;
@@ -45,6 +47,13 @@ public class Server extends WebSocketServer {
      */
     private final Board board;
 
+    /**
+     * saves an immutable snapshot of the current position, which may be read by any thread
+     *
+     * @see #getSnapshot()
+     */
+    private volatile BoardSnapshot snapshot;
+
     /**
      * Instantiates a Server and initializes the Board-instance used to check Moves.
      * 
@@ -53,6 +62,7 @@ public class Server extends WebSocketServer {
     Server(InetSocketAddress address) {
         super(address);
         board = new Board();
+        snapshot = board.snapshot();
     }
 
     @Override
@@ -184,6 +194,18 @@ public class Server extends WebSocketServer {
         return users.values().toArray(new String[0]);
     }
 
+    /**
+     * Returns the current position of the game. The Board of the server is only changed by the thread
+     * handling the messages, but the snapshot is immutable and may be read by any other thread, e.g.
+     * to broadcast the game to spectators or to analyze it. The snapshots of earlier positions can be
+     * reached through {@link BoardSnapshot#getPrevious()}.
+     *
+     * @return snapshot of the current position.
+     */
+    public BoardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * <p>
      * Handles received messages according to their type.
@@ -194,7 +216,8 @@ public class Server extends WebSocketServer {
      * </p>
      * <p>
      * NEWMOVE: Is taken apart into username and the transmitted Move-instance. Then, the method checks
-     * if the Move is valid or not. Afterwards it is sent to the other connected WebSocket.
+     * if the Move is valid or not. Afterwards it is sent to the other connected WebSocket. If the
+     * game is over by checkmate or a draw, the result is broadcast and the connections are closed.
      * </p>
      * 
      * @param cmsg ClientMessage to be handled.
@@ -218,10 +241,12 @@ public class Server extends WebSocketServer {
 
                 Move m = new Gson().fromJson(cmsg.getMessage(), Move.class);
 
-
-                if (board.isMoveValid(m)) {
+                // a move of the side that is not to move is as invalid as an illegal move
+                if (board.isMoveValid(m) && board.getPiece(m.getOrigin()).isWhite() == board.isWhiteToMove()) {
                     log.debug("Move from {} was found valid!", username);
-                    board.getBoardMap().get(m.getOrigin()).makeMove(m);
+                    BoardSnapshot next = snapshot.play(Moves.fromMove(m, board));
+                    board.makeMove(m);
+                    snapshot = next;
                     Message msg = new ServerMessage(username, MessageType.NEWMOVE, sentDate, cmsg.getMessage());
 
                     getConnections().parallelStream().filter(ws -> !(ws.equals(webSocket))).forEach(ws -> ws.send(msg.toJSON()));
@@ -238,6 +263,13 @@ public class Server extends WebSocketServer {
                             broadcast(new ServerMessage(winnerUsername, MessageType.CHECKMATE, "").toJSON());
                         });
                         getConnections().forEach(ws -> ws.close(CloseFrame.NORMAL));
+                    } else {
+                        String drawReason = board.getDrawReason();
+                        if (drawReason != null) {
+                            log.info("Game ended in a draw: {}", drawReason);
+                            broadcast(new ServerMessage(MessageType.DRAW, drawReason).toJSON());
+                            getConnections().forEach(ws -> ws.close(CloseFrame.NORMAL));
+                        }
                     }
                 } else {
                     log.info("Move from {} was found invalid. Closing game!", username);
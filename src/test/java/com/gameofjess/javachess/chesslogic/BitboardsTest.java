@@ -0,0 +1,88 @@
+package com.gameofjess.javachess.chesslogic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BitboardsTest {
+
+    @Test
+    void square() {
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                int square = Bitboards.square(x, y);
+                assertEquals(x, Bitboards.getX(square));
+                assertEquals(y, Bitboards.getY(square));
+                assertEquals(square, Bitboards.square(new Position(x, y)));
+            }
+        }
+    }
+
+    @Test
+    void knightAttacks() {
+        assertEquals(2, Long.bitCount(Bitboards.knightAttacks(Bitboards.square(0, 0))));
+        assertEquals(4, Long.bitCount(Bitboards.knightAttacks(Bitboards.square(7, 3))));
+        assertEquals(8, Long.bitCount(Bitboards.knightAttacks(Bitboards.square(3, 3))));
+        assertEquals(Bitboards.bit(Bitboards.square(1, 2)) | Bitboards.bit(Bitboards.square(2, 1)), Bitboards.knightAttacks(Bitboards.square(0, 0)));
+    }
+
+    @Test
+    void kingAttacks() {
+        assertEquals(3, Long.bitCount(Bitboards.kingAttacks(Bitboards.square(7, 7))));
+        assertEquals(5, Long.bitCount(Bitboards.kingAttacks(Bitboards.square(0, 4))));
+        assertEquals(8, Long.bitCount(Bitboards.kingAttacks(Bitboards.square(4, 4))));
+    }
+
+    @Test
+    void pawnAttacks() {
+        assertEquals(Bitboards.bit(Bitboards.square(1, 2)), Bitboards.pawnAttacks(Bitboards.square(0, 1), true));
+        assertEquals(Bitboards.bit(Bitboards.square(6, 5)), Bitboards.pawnAttacks(Bitboards.square(7, 6), false));
+        assertEquals(2, Long.bitCount(Bitboards.pawnAttacks(Bitboards.square(3, 3), false)));
+        assertEquals(0, Bitboards.pawnAttacks(Bitboards.square(4, 7), true));
+        assertEquals(0, Bitboards.pawnAttacks(Bitboards.square(4, 0), false));
+    }
+
+    @Test
+    void slidingAttacks() {
+        assertEquals(14, Long.bitCount(Bitboards.rookAttacks(Bitboards.square(3, 3), 0L)));
+        assertEquals(13, Long.bitCount(Bitboards.bishopAttacks(Bitboards.square(3, 3), 0L)));
+        long blocker = Bitboards.bit(Bitboards.square(3, 5));
+        long attacks = Bitboards.rookAttacks(Bitboards.square(3, 3), blocker);
+        assertEquals(blocker, attacks & blocker);
+        assertEquals(0, attacks & Bitboards.bit(Bitboards.square(3, 6)));
+    }
+
+    @Test
+    void magicAttacks() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            long occupied = random.nextLong() & random.nextLong();
+            for (int square = 0; square < 64; square++) {
+                long rook = walk(square, occupied, 1, 0) | walk(square, occupied, -1, 0)
+                        | walk(square, occupied, 0, 1) | walk(square, occupied, 0, -1);
+                long bishop = walk(square, occupied, 1, 1) | walk(square, occupied, 1, -1)
+                        | walk(square, occupied, -1, 1) | walk(square, occupied, -1, -1);
+                assertEquals(rook, Bitboards.rookAttacks(square, occupied));
+                assertEquals(bishop, Bitboards.bishopAttacks(square, occupied));
+            }
+        }
+    }
+
+    private static long walk(int square, long occupied, int dx, int dy) {
+        long attacks = 0L;
+        int x = Bitboards.getX(square) + dx;
+        int y = Bitboards.getY(square) + dy;
+        while (x >= 0 && x < 8 && y >= 0 && y < 8) {
+            long bit = Bitboards.bit(Bitboards.square(x, y));
+            attacks |= bit;
+            if ((occupied & bit) != 0) {
+                break;
+            }
+            x += dx;
+            y += dy;
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,61 @@
+package com.gameofjess.javachess.chesslogic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class BoardSnapshotTest {
+
+    @Test
+    void snapshot() {
+        Board board = new Board();
+        BoardSnapshot snapshot = board.snapshot();
+        assertSame(snapshot, board.snapshot());
+        assertEquals(board.toFen(), snapshot.toFen());
+        assertEquals(board.getZobristKey(), snapshot.getZobristKey());
+        assertNull(snapshot.getPrevious());
+
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 3)));
+        assertNotSame(snapshot, board.snapshot());
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", snapshot.toFen());
+        assertEquals(board.toFen(), snapshot.toBoard().snapshot().play(Moves.encode(11, 27, Moves.DOUBLE_PUSH)).toFen());
+    }
+
+    @Test
+    void play() {
+        // every move played on a snapshot must lead to the same position as on the Board
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Board board = reference.getBoard();
+            compare(board, board.snapshot(), 3);
+            assertEquals(reference.getFen(), board.toFen());
+        }
+    }
+
+    private static void compare(Board board, BoardSnapshot snapshot, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.isWhiteToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            BoardSnapshot next = snapshot.play(moves.get(i));
+            board.makeMove(moves.get(i));
+            assertEquals(board.toFen(), next.toFen());
+            assertEquals(board.getZobristKey(), next.getZobristKey());
+            assertSame(snapshot, next.getPrevious());
+            compare(board, next, depth - 1);
+            board.unmakeMove();
+        }
+    }
+
+    @Test
+    void invalidMove() {
+        BoardSnapshot snapshot = new Board().snapshot();
+        assertThrows(IllegalArgumentException.class, () -> snapshot.play(Moves.encode(27, 35, Moves.QUIET)));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.play(Moves.encode(51, 43, Moves.QUIET)));
+    }
+}
@@ -2,13 +2,28 @@ package com.gameofjess.javachess.chesslogic;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
+import com.gameofjess.javachess.chesslogic.pieces.Bishop;
+import com.gameofjess.javachess.chesslogic.pieces.King;
+import com.gameofjess.javachess.chesslogic.pieces.Knight;
+import com.gameofjess.javachess.chesslogic.pieces.Pawn;
 import com.gameofjess.javachess.chesslogic.pieces.Piece;
+import com.gameofjess.javachess.chesslogic.pieces.Queen;
+import com.gameofjess.javachess.chesslogic.pieces.Rook;
 
 class BoardTest {
 
@@ -24,7 +39,7 @@ class BoardTest {
                     if(moves.length > 0){
                         Move move = moves[i % moves.length];
                         assertEquals(piece.getPosition(), move.getOrigin());
-                        piece.makeMove(move);
+                        board.makeMove(move);
                         assertEquals(piece.getPosition(), move.getDestination());
                     }
                 }
@@ -32,6 +47,479 @@ class BoardTest {
         });
     }
 
+    @Test
+    void bitboards(){
+        Board board = new Board();
+        assertEquals(32, Long.bitCount(board.getOccupied()));
+        assertEquals(0xFFFFL, board.getOccupancy(true));
+        assertEquals(0xFFFFL << 48, board.getOccupancy(false));
+        assertEquals(0xFFL << 8, board.getBitboard(Bitboards.PAWN, true));
+        assertEquals(Bitboards.bit(Bitboards.square(3, 7)), board.getBitboard(Bitboards.KING, false));
+
+        board.makeMove(new Move(new Position(1, 0), new Position(2, 2)));
+        assertEquals(Bitboards.bit(Bitboards.square(2, 2)) | Bitboards.bit(Bitboards.square(6, 0)), board.getBitboard(Bitboards.KNIGHT, true));
+        board.getBoardMap().forEach((position, piece) ->
+                assertEquals(piece.isWhite(), (board.getOccupancy(true) & Bitboards.bit(Bitboards.square(position))) != 0));
+    }
+
+    @Test
+    void makeUnmakeMove(){
+        Board board = new Board();
+        Map<Position, Piece> initial = new HashMap<>(board.getBoardMap());
+        long occupied = board.getOccupied();
+        int moves = 0;
+        for (int i = 0; i < 40; i++) {
+            List<Move> legalMoves = new ArrayList<>();
+            for (Piece piece : new ArrayList<>(board.getBoardMap().values())) {
+                if (piece.isWhite() == board.isWhiteToMove()) {
+                    legalMoves.addAll(List.of(piece.getMoves()));
+                }
+            }
+            if (legalMoves.isEmpty()) {
+                break;
+            }
+            board.makeMove(legalMoves.get((i * 7) % legalMoves.size()));
+            moves++;
+        }
+        for (int i = 0; i < moves; i++) {
+            board.unmakeMove();
+        }
+        assertEquals(initial, new HashMap<>(board.getBoardMap()));
+        assertEquals(occupied, board.getOccupied());
+        assertTrue(board.isWhiteToMove());
+        assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @Test
+    void makeUnmakeEnpassant(){
+        Board board = new Board();
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 3)));
+        board.makeMove(new Move(new Position(0, 6), new Position(0, 5)));
+        board.makeMove(new Move(new Position(3, 3), new Position(3, 4)));
+        board.makeMove(new Move(new Position(2, 6), new Position(2, 4)));
+        Pawn blackPawn = (Pawn) board.getBoardMap().get(new Position(2, 4));
+        assertTrue(blackPawn.isEnpassant());
+
+        Move enpassant = new Move(new Position(3, 4), new Position(2, 5), new Position(2, 4), true);
+        assertTrue(board.isMoveValid(enpassant));
+        board.makeMove(enpassant);
+        assertNull(board.getBoardMap().get(new Position(2, 4)));
+        board.unmakeMove();
+        assertSame(blackPawn, board.getBoardMap().get(new Position(2, 4)));
+        assertTrue(blackPawn.isEnpassant());
+
+        board.makeMove(new Move(new Position(7, 1), new Position(7, 2)));
+        assertFalse(blackPawn.isEnpassant());
+        board.unmakeMove();
+        assertTrue(blackPawn.isEnpassant());
+    }
+
+    @Test
+    void makeUnmakeCastling(){
+        Board board = new Board();
+        board.getBoardMap().keySet().stream().toList().forEach(board::boardMapRemove);
+        board.initialize_rochade();
+        Move castling = new Move(new Position(3, 0), new Position(1, 0), true, new Position(0, 0));
+        assertTrue(board.isMoveValid(castling));
+        board.makeMove(castling);
+        Rook rook = (Rook) board.getBoardMap().get(new Position(2, 0));
+        assertFalse(rook.isCastling());
+        assertFalse(board.getKingWhite().isCastling());
+        board.unmakeMove();
+        assertSame(rook, board.getBoardMap().get(new Position(0, 0)));
+        assertTrue(rook.isCastling());
+        assertTrue(board.getKingWhite().isCastling());
+    }
+
+    @Test
+    void isSquareAttacked(){
+        Board board = new Board();
+        for (int x = 0; x < 8; x++) {
+            assertTrue(board.isSquareAttacked(new Position(x, 2), true));
+            assertFalse(board.isSquareAttacked(new Position(x, 3), true));
+            assertTrue(board.isSquareAttacked(new Position(x, 5), false));
+            assertFalse(board.isSquareAttacked(new Position(x, 4), false));
+        }
+        assertFalse(board.getKingWhite().checkCheck());
+
+        board.makeMove(new Move(new Position(2, 1), new Position(2, 2)));
+        board.makeMove(new Move(new Position(4, 6), new Position(4, 4)));
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 3)));
+        assertFalse(board.getKingWhite().checkCheck());
+        board.makeMove(new Move(new Position(4, 7), new Position(0, 3)));
+        assertTrue(board.getKingWhite().checkCheck());
+        assertTrue(board.getKingWhite().getMoves().length > 0);
+    }
+
+    @Test
+    void castlingThroughCheck(){
+        Board board = new Board();
+        board.getBoardMap().keySet().stream().toList().forEach(board::boardMapRemove);
+        board.initialize_rochade();
+        board.boardMapAdd(new Position(2, 5), new Rook(board, false, false));
+        assertFalse(board.isMoveValid(new Move(new Position(3, 0), new Position(1, 0), true, new Position(0, 0))));
+        assertTrue(board.isMoveValid(new Move(new Position(3, 0), new Position(5, 0), true, new Position(7, 0))));
+
+        board.boardMapAdd(new Position(3, 5), new Rook(board, false, false));
+        assertFalse(board.isMoveValid(new Move(new Position(3, 0), new Position(5, 0), true, new Position(7, 0))));
+    }
+
+    @Test
+    void boardMapCache(){
+        Board board = new Board();
+        Map<Position, Piece> map = board.getBoardMap();
+        assertSame(map, board.getBoardMap());
+        board.makeMove(new Move(new Position(1, 0), new Position(2, 2)));
+        assertNotSame(map, board.getBoardMap());
+        assertSame(board.getPiece(Position.of(2, 2)), board.getBoardMap().get(Position.of(2, 2)));
+        assertNull(board.getBoardMap().get(Position.of(1, 0)));
+        assertSame(map.get(Position.of(1, 0)), board.getPiece(Position.of(2, 2)));
+    }
+
+    @Test
+    void moveOutsideBoard(){
+        Board board = new Board();
+        assertFalse(board.isMoveValid(new Move(new Position(8, 1), new Position(8, 2))));
+        assertFalse(board.isMoveValid(new Move(new Position(0, 1), new Position(0, 8))));
+        assertFalse(board.isMoveValid(new Move(new Position(-1, 1), new Position(-1, 2))));
+        assertFalse(board.isMoveValid(new Move(new Position(3, 0), new Position(3, -1))));
+        assertTrue(board.isMoveValid(new Move(new Position(0, 1), new Position(0, 2))));
+    }
+
+    @Test
+    void pinnedPieces(){
+        Board board = new Board();
+        board.getBoardMap().keySet().stream().toList().forEach(board::boardMapRemove);
+        King king = new King(board, true);
+        board.boardMapAdd(new Position(3, 0), king);
+        board.setKingWhite(king);
+        board.boardMapAdd(new Position(3, 7), new King(board, false));
+        Rook pinnedRook = new Rook(board, true, false);
+        board.boardMapAdd(new Position(3, 2), pinnedRook);
+        Bishop pinnedBishop = new Bishop(board, true);
+        board.boardMapAdd(new Position(4, 1), pinnedBishop);
+        board.boardMapAdd(new Position(3, 5), new Rook(board, false, false));
+        board.boardMapAdd(new Position(6, 3), new Queen(board, false));
+
+        assertEquals(2, pinnedBishop.getMoves().length);
+        for (Move move : pinnedBishop.getMoves()) {
+            assertEquals(move.getDestination().getX() - 3, move.getDestination().getY());
+        }
+        for (Move move : pinnedRook.getMoves()) {
+            assertEquals(3, move.getDestination().getX());
+        }
+        assertEquals(4, pinnedRook.getMoves().length);
+        assertEquals(Bitboards.bit(Bitboards.square(3, 2)) | Bitboards.bit(Bitboards.square(4, 1)), board.getPinned(true));
+    }
+
+    @Test
+    void checkEvasions(){
+        Board board = new Board();
+        board.getBoardMap().keySet().stream().toList().forEach(board::boardMapRemove);
+        King king = new King(board, true);
+        board.boardMapAdd(new Position(3, 0), king);
+        board.setKingWhite(king);
+        board.boardMapAdd(new Position(3, 7), new King(board, false));
+        Rook rook = new Rook(board, true, false);
+        board.boardMapAdd(new Position(0, 3), rook);
+        board.boardMapAdd(new Position(3, 5), new Rook(board, false, false));
+
+        assertTrue(king.checkCheck());
+        Move[] moves = rook.getMoves();
+        assertEquals(1, moves.length);
+        assertEquals(new Move(new Position(0, 3), new Position(3, 3)), moves[0]);
+        for (Move move : king.getMoves()) {
+            assertTrue(move.getDestination().getX() != 3);
+        }
+
+        board.boardMapAdd(new Position(2, 2), new Knight(board, false));
+        assertEquals(0, rook.getMoves().length);
+    }
+
+    @Test
+    void enpassantDiscoveredCheck(){
+        Board board = new Board();
+        board.getBoardMap().keySet().stream().toList().forEach(board::boardMapRemove);
+        King king = new King(board, true);
+        board.boardMapAdd(new Position(7, 4), king);
+        board.setKingWhite(king);
+        board.boardMapAdd(new Position(3, 7), new King(board, false));
+        Pawn pawn = new Pawn(board, true);
+        board.boardMapAdd(new Position(4, 4), pawn);
+        board.boardMapAdd(new Position(3, 6), new Pawn(board, false));
+        board.boardMapAdd(new Position(0, 4), new Rook(board, false, false));
+
+        board.makeMove(new Move(new Position(3, 6), new Position(3, 4)));
+        for (Move move : pawn.getMoves()) {
+            assertFalse(move.getEnpassant());
+        }
+        assertEquals(1, pawn.getMoves().length);
+    }
+
+    @Test
+    void squareLookups(){
+        Board board = new Board();
+        King king = board.getKingWhite();
+        assertEquals(Bitboards.square(3, 0), board.getSquare(king));
+        assertSame(king, board.getPiece(Bitboards.square(3, 0)));
+        assertSame(board.getPiece(Position.of(3, 1)), board.getPiece(Bitboards.square(3, 1)));
+        assertNull(board.getPiece(Bitboards.square(3, 3)));
+        board.boardMapRemove(Position.of(3, 0));
+        assertEquals(-1, board.getSquare(king));
+    }
+
+    @Test
+    void zobristIncremental(){
+        assertZobristKeys(Perft.Reference.KIWIPETE.getBoard(), 3);
+        assertZobristKeys(Perft.Reference.POSITION_3.getBoard(), 4);
+        assertZobristKeys(Perft.Reference.POSITION_4.getBoard(), 3);
+    }
+
+    private static void assertZobristKeys(Board board, int depth){
+        long key = board.getZobristKey();
+        assertEquals(board.computeZobristKey(), key);
+        if (depth == 0) {
+            return;
+        }
+        for (Move move : board.getLegalMoves(board.isWhiteToMove())) {
+            board.makeMove(move);
+            assertZobristKeys(board, depth - 1);
+            board.unmakeMove();
+            assertEquals(key, board.getZobristKey());
+        }
+    }
+
+    @Test
+    void zobristTransposition(){
+        Board board = new Board();
+        long start = board.getZobristKey();
+        board.makeMove(new Move(new Position(6, 0), new Position(5, 2)));
+        assertNotEquals(start, board.getZobristKey());
+        board.makeMove(new Move(new Position(6, 7), new Position(5, 5)));
+        board.makeMove(new Move(new Position(5, 2), new Position(6, 0)));
+        board.makeMove(new Move(new Position(5, 5), new Position(6, 7)));
+        assertEquals(start, board.getZobristKey());
+
+        // the same position without castling rights
+        board.makeMove(new Move(new Position(6, 0), new Position(5, 2)));
+        board.makeMove(new Move(new Position(6, 7), new Position(5, 5)));
+        board.makeMove(new Move(new Position(0, 0), new Position(1, 0)));
+        board.makeMove(new Move(new Position(5, 5), new Position(6, 7)));
+        board.makeMove(new Move(new Position(1, 0), new Position(0, 0)));
+        board.makeMove(new Move(new Position(6, 7), new Position(5, 5)));
+        board.makeMove(new Move(new Position(5, 2), new Position(6, 0)));
+        board.makeMove(new Move(new Position(5, 5), new Position(6, 7)));
+        assertNotEquals(start, board.getZobristKey());
+        assertEquals(board.computeZobristKey(), board.getZobristKey());
+
+        Board clone = new Board(board);
+        assertEquals(board.getZobristKey(), clone.getZobristKey());
+    }
+
+    @Test
+    void nullMove(){
+        Board board = Board.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        long key = board.getZobristKey();
+        assertEquals(board.toFen(), board.snapshot().toFen());
+        board.makeNullMove();
+        assertFalse(board.isWhiteToMove());
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 b - - 1 1", board.toFen());
+        assertEquals(board.toFen(), board.snapshot().toFen());
+        assertEquals(board.computeZobristKey(), board.getZobristKey());
+        board.makeNullMove();
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - - 2 2", board.toFen());
+        assertEquals(board.toFen(), board.snapshot().toFen());
+        board.unmakeMove();
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 b - - 1 1", board.toFen());
+        assertEquals(board.toFen(), board.snapshot().toFen());
+        board.unmakeMove();
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", board.toFen());
+        assertEquals(board.toFen(), board.snapshot().toFen());
+
+        // without an enpassant status to clear, only the side to move and the clocks change
+        Board start = new Board();
+        start.snapshot();
+        start.makeNullMove();
+        assertEquals(start.toFen(), start.snapshot().toFen());
+        start.unmakeMove();
+        assertEquals(start.toFen(), start.snapshot().toFen());
+        assertEquals(key, board.getZobristKey());
+        // the enpassant capture is possible again
+        assertEquals(Perft.perft(Board.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1"), 3), Perft.perft(board, 3));
+    }
+
+    @Test
+    void fen(){
+        assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", new Board().toFen());
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Board board = Board.fromFen(reference.getFen());
+            assertEquals(reference.getFen(), board.toFen());
+            assertEquals(board.computeZobristKey(), board.getZobristKey());
+        }
+        assertEquals("4k3/8/8/8/8/8/8/4K3 w - - 0 1", Board.fromFen("  4k3/8/8/8/8/8/8/4K3 w -   - ").toFen());
+        // castling rights without the rook in its corner are dropped
+        assertEquals("4k3/8/8/8/8/8/8/4K2R w K - 0 1", Board.fromFen("4k3/8/8/8/8/8/8/4K2R w KQkq - 0 1").toFen());
+    }
+
+    @Test
+    void fenClocks(){
+        Board board = new Board();
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 3)));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board.toFen());
+        board.makeMove(new Move(new Position(1, 7), new Position(2, 5)));
+        board.makeMove(new Move(new Position(6, 0), new Position(5, 2)));
+        assertEquals(2, board.getHalfmoveClock());
+        assertEquals(2, board.getFullmoveNumber());
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(0, board.getHalfmoveClock());
+        assertEquals(1, board.getFullmoveNumber());
+
+        Board kiwipete = Board.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 37 42");
+        assertEquals(37, kiwipete.getHalfmoveClock());
+        assertEquals(42, kiwipete.getFullmoveNumber());
+        assertEquals(kiwipete.toFen(), Board.fromFen(new StringBuilder(kiwipete.toFen())).toFen());
+    }
+
+    @Test
+    void fenInvalid(){
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen(""));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 w"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 x - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K2 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/8/4K3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4X3 w - - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 w KX - 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - e4 0 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - x 1"));
+        assertThrows(IllegalArgumentException.class, () -> Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 0"));
+    }
+
+    @Test
+    void legalMoveCache(){
+        Board board = new Board();
+        MoveList moves = board.getLegalMoveList(true);
+        assertEquals(20, moves.size());
+        assertSame(moves, board.getLegalMoveList(true));
+        assertSame(board.getLegalMoves(true).get(0), board.getLegalMoves(true).get(0));
+
+        long modificationCount = board.getModificationCount();
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 3)));
+        assertNotEquals(modificationCount, board.getModificationCount());
+        assertEquals(30, board.getLegalMoves(true).size());
+        assertEquals(20, board.getLegalMoves(false).size());
+        board.unmakeMove();
+        assertEquals(20, board.getLegalMoves(true).size());
+        assertEquals(2, board.getLegalMoves(board.getPiece(new Position(1, 0))).length);
+
+        // changing the status of a piece invalidates the cached moves as well
+        board.makeMove(new Move(new Position(3, 1), new Position(3, 4)));
+        board.makeMove(new Move(new Position(2, 6), new Position(2, 4)));
+        assertEquals(2, board.getLegalMoves(board.getPiece(new Position(3, 4))).length);
+        ((Pawn) board.getPiece(new Position(2, 4))).setEnpassant(false);
+        assertEquals(1, board.getLegalMoves(board.getPiece(new Position(3, 4))).length);
+    }
+
+    @Test
+    void hasAnyLegalMove(){
+        // fool's mate
+        Board mate = Board.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertFalse(mate.hasAnyLegalMove(true));
+        assertTrue(mate.getKingWhite().checkCheckMate());
+        assertFalse(mate.getKingBlack().checkCheckMate());
+
+        Board stalemate = Board.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        assertFalse(stalemate.hasAnyLegalMove(false));
+        assertFalse(stalemate.getKingBlack().checkCheckMate());
+
+        Board backRank = Board.fromFen("6rk/6pp/8/8/8/8/5PPP/3r2K1 w - - 0 1");
+        assertTrue(backRank.getKingWhite().checkCheckMate());
+        // the only legal move is capturing the checking queen
+        Board captureByRook = Board.fromFen("6rk/6pp/8/8/8/8/5PPP/R2q2K1 w - - 0 1");
+        assertTrue(captureByRook.hasAnyLegalMove(true));
+        assertEquals(1, captureByRook.getLegalMoves(true).size());
+
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Board board = reference.getBoard();
+            for (Move move : board.getLegalMoves(board.isWhiteToMove())) {
+                board.makeMove(move);
+                boolean expected = !board.getLegalMoveList(board.isWhiteToMove()).isEmpty();
+                board.invalidate();
+                assertEquals(expected, board.hasAnyLegalMove(board.isWhiteToMove()));
+                board.unmakeMove();
+            }
+        }
+    }
+
+    @Test
+    void draws(){
+        assertEquals("Stalemate", Board.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1").getDrawReason());
+        assertFalse(Board.fromFen("7k/5Q2/6K1/8/8/8/8/8 w - - 0 1").isStalemate());
+        assertEquals("Fifty-move rule", Board.fromFen("7k/8/8/8/8/8/8/R3K3 b - - 100 80").getDrawReason());
+        assertNull(Board.fromFen("7k/8/8/8/8/8/8/R3K3 b - - 99 80").getDrawReason());
+
+        assertTrue(Board.fromFen("7k/8/8/8/8/8/8/K7 w - - 0 1").isInsufficientMaterial());
+        assertTrue(Board.fromFen("7k/8/8/8/8/8/8/KN6 w - - 0 1").isInsufficientMaterial());
+        assertTrue(Board.fromFen("7k/8/8/8/8/8/2b5/KB6 w - - 0 1").isInsufficientMaterial());
+        assertFalse(Board.fromFen("7k/8/8/8/8/8/1b6/KB6 w - - 0 1").isInsufficientMaterial());
+        assertFalse(Board.fromFen("7k/8/8/8/8/8/8/KNN5 w - - 0 1").isInsufficientMaterial());
+        assertFalse(Board.fromFen("7k/8/8/8/8/8/P7/K7 w - - 0 1").isInsufficientMaterial());
+        assertFalse(new Board().isInsufficientMaterial());
+
+        Board board = new Board();
+        Move[] knightMoves = {
+                new Move(new Position(1, 0), new Position(2, 2)),
+                new Move(new Position(1, 7), new Position(2, 5)),
+                new Move(new Position(2, 2), new Position(1, 0)),
+                new Move(new Position(2, 5), new Position(1, 7))
+        };
+        for (int i = 0; i < 8; i++) {
+            assertFalse(board.isThreefoldRepetition());
+            board.makeMove(knightMoves[i % 4]);
+        }
+        assertTrue(board.isThreefoldRepetition());
+        assertEquals("Threefold repetition", board.getDrawReason());
+        board.unmakeMove();
+        assertFalse(board.isThreefoldRepetition());
+    }
+
+    @Test
+    void pieceLists(){
+        Board board = Board.fromFen(Perft.Reference.KIWIPETE.getFen());
+        assertEquals(16, board.getPieces(true).size());
+        assertEquals(16, board.getPieces(false).size());
+        for (Move move : board.getLegalMoves(true)) {
+            board.makeMove(move);
+            for (boolean isWhite : new boolean[] {true, false}) {
+                for (Piece piece : board.getPieces(isWhite)) {
+                    assertEquals(isWhite, piece.isWhite());
+                    assertSame(piece, board.getPiece(piece.getSquare()));
+                    assertEquals(Position.of(piece.getSquare()), board.getPosition(piece));
+                }
+                assertEquals(Long.bitCount(board.getOccupancy(isWhite)), board.getPieces(isWhite).size());
+            }
+            board.unmakeMove();
+        }
+        assertEquals(Perft.Reference.KIWIPETE.getFen(), board.toFen());
+
+        Piece pawn = board.getPiece(Position.of(7, 6));
+        board.boardMapRemove(Position.of(7, 6));
+        assertEquals(-1, board.getSquare(pawn));
+        assertNull(board.getPosition(pawn));
+        assertEquals(15, board.getPieces(false).size());
+    }
+
+    @Test
+    void zobristEnpassant(){
+        // the enpassant square only counts if the pawn can be captured
+        assertNotEquals(Board.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - e3 0 1").getZobristKey(),
+                Board.fromFen("4k3/8/8/8/3pP3/8/8/4K3 b - - 0 1").getZobristKey());
+        assertEquals(Board.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1").getZobristKey(),
+                Board.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1").getZobristKey());
+        assertNotEquals(Board.fromFen("4k3/8/8/8/8/8/8/4K3 b - - 0 1").getZobristKey(),
+                Board.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getZobristKey());
+    }
+
     @Test
     void initialization(){
         Board board = new Board();
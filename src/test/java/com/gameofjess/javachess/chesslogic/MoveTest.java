@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.Test;
 
+import com.gameofjess.javachess.chesslogic.pieces.Knight;
 import com.gameofjess.javachess.chesslogic.pieces.Queen;
 import com.gameofjess.javachess.chesslogic.pieces.Rook;
 
@@ -26,4 +27,11 @@ class MoveTest {
         assertNotEquals(new Move(pos1, pos2, true, pos3), new Move(pos1, pos2, true, pos4));
         assertNotEquals(new Move(pos1, pos2, Queen.class.toString()), new Move(pos1, pos2, Rook.class.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testToString() {
+        assertEquals("e2e4", new Move(new Position(3, 1), new Position(3, 3)).toString());
+        assertEquals("a7a8n", new Move(new Position(7, 6), new Position(7, 7), Knight.class.getName()).toString());
+        assertEquals("h2h1q", new Move(new Position(0, 1), new Position(0, 0), Queen.class.getName()).toString());
+    }
+}
@@ -0,0 +1,65 @@
+package com.gameofjess.javachess.chesslogic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.gameofjess.javachess.chesslogic.pieces.Knight;
+
+class MovesTest {
+
+    @Test
+    void encode() {
+        int move = Moves.encode(Bitboards.square(3, 1), Bitboards.square(3, 3), Moves.DOUBLE_PUSH);
+        assertEquals(Bitboards.square(3, 1), Moves.getFrom(move));
+        assertEquals(Bitboards.square(3, 3), Moves.getTo(move));
+        assertEquals(Moves.DOUBLE_PUSH, Moves.getFlags(move));
+        assertFalse(Moves.isCapture(move));
+        assertFalse(Moves.isPromotion(move));
+        assertEquals("e2e4", Moves.toString(move));
+        assertTrue(move < 1 << 16);
+
+        int promotion = Moves.encodePromotion(Bitboards.square(7, 6), Bitboards.square(6, 7), Bitboards.KNIGHT, true);
+        assertTrue(Moves.isCapture(promotion));
+        assertTrue(Moves.isPromotion(promotion));
+        assertEquals(Bitboards.KNIGHT, Moves.getPromotionType(promotion));
+        assertEquals("a7b8n", Moves.toString(promotion));
+        assertEquals(new Move(Position.of(7, 6), Position.of(6, 7), Knight.class.getName()), Moves.toMove(promotion));
+
+        assertTrue(Moves.isCapture(Moves.encode(0, 9, Moves.ENPASSANT)));
+    }
+
+    @Test
+    void conversion() {
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            Board board = reference.getBoard();
+            MoveList moves = new MoveList();
+            board.generateLegalMoves(board.isWhiteToMove(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                Move object = Moves.toMove(move);
+                assertEquals(move, Moves.fromMove(object, board));
+                assertEquals(Moves.toString(move), object.toString());
+            }
+        }
+    }
+
+    @Test
+    void moveList() {
+        MoveList moves = new MoveList();
+        assertTrue(moves.isEmpty());
+        for (int i = 1; i <= 300; i++) {
+            moves.add(i);
+        }
+        assertEquals(300, moves.size());
+        assertTrue(moves.contains(300));
+        moves.swap(0, 299);
+        assertEquals(300, moves.get(0));
+        assertEquals(1, moves.get(299));
+        moves.clear();
+        assertTrue(moves.isEmpty());
+        assertFalse(moves.contains(300));
+    }
+}
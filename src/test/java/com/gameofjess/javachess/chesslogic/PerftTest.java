@@ -0,0 +1,89 @@
+package com.gameofjess.javachess.chesslogic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PerftTest {
+
+    @Test
+    void start() {
+        Board board = Perft.Reference.START.getBoard();
+        for (int depth = 1; depth <= 3; depth++) {
+            assertEquals(Perft.Reference.START.getNodes(depth), Perft.perft(board, depth));
+        }
+    }
+
+    @Test
+    void kiwipete() {
+        assertEquals(Perft.Reference.KIWIPETE.getNodes(3), Perft.perft(Perft.Reference.KIWIPETE.getBoard(), 3));
+    }
+
+    @Test
+    void parallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Perft.Reference reference : Perft.Reference.values()) {
+                Board board = reference.getBoard();
+                assertEquals(reference.getNodes(3), Perft.parallelPerft(board, 3, pool, 0));
+                assertEquals(reference.getNodes(3), Perft.parallelPerft(board, 3, pool, 1));
+                assertEquals(reference.getFen(), board.toFen());
+            }
+            assertEquals(Perft.Reference.POSITION_3.getNodes(5), Perft.parallelPerft(Perft.Reference.POSITION_3.getBoard(), 5, pool, 1));
+            assertEquals(Perft.Reference.START.getNodes(1), Perft.parallelPerft(new Board(), 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void position3() {
+        assertEquals(Perft.Reference.POSITION_3.getNodes(4), Perft.perft(Perft.Reference.POSITION_3.getBoard(), 4));
+    }
+
+    @Test
+    void position4() {
+        assertEquals(Perft.Reference.POSITION_4.getNodes(3), Perft.perft(Perft.Reference.POSITION_4.getBoard(), 3));
+    }
+
+    @Test
+    void position5() {
+        assertEquals(Perft.Reference.POSITION_5.getNodes(3), Perft.perft(Perft.Reference.POSITION_5.getBoard(), 3));
+    }
+
+    @Test
+    void perftRestoresBoard() {
+        Board board = Perft.Reference.KIWIPETE.getBoard();
+        Map<Position, String> before = new HashMap<>();
+        board.getBoardMap().forEach((position, piece) -> before.put(position, piece.getClass().getSimpleName() + piece.isWhite()));
+        long occupied = board.getOccupied();
+        Perft.perft(board, 3);
+        Map<Position, String> after = new HashMap<>();
+        board.getBoardMap().forEach((position, piece) -> after.put(position, piece.getClass().getSimpleName() + piece.isWhite()));
+        assertEquals(before, after);
+        assertEquals(occupied, board.getOccupied());
+        assertTrue(board.isWhiteToMove());
+    }
+
+    @Test
+    void divide() {
+        Map<String, Long> divide = Perft.divide(Perft.Reference.START.getBoard(), 2);
+        assertEquals(20, divide.size());
+        assertEquals(20L, divide.get("e2e4"));
+        assertEquals(20L, divide.get("g1f3"));
+        assertEquals(400L, divide.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void result() {
+        Perft.Result result = Perft.run(Perft.Reference.START.getBoard(), 2);
+        assertEquals(400, result.getNodes());
+        assertEquals(2, result.getDepth());
+        assertTrue(result.getNanos() > 0);
+    }
+}
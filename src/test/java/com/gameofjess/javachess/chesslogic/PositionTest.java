@@ -27,6 +27,17 @@ class PositionTest {
         }
     }
 
+    @Test
+    void of() {
+        for (Position position: positions) {
+            Position shared = Position.of(position.getX(), position.getY());
+            assertEquals(position, shared);
+            assertSame(shared, Position.of(position.getSquare()));
+            assertSame(shared, shared.getClone());
+            assertEquals(position.getY() * 8 + position.getX(), shared.getSquare());
+        }
+    }
+
     @Test
     void testEquals() {
         for (Position position: positions) {
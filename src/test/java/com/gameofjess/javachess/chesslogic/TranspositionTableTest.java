@@ -0,0 +1,83 @@
+package com.gameofjess.javachess.chesslogic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+
+    @Test
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1024 * 1024 / 16, table.getCapacity());
+        long key = 0x123456789ABCDEFL;
+        assertEquals(0L, table.probe(key));
+
+        table.store(key, 0xABCD, -1234, 7, TranspositionTable.LOWER_BOUND);
+        long data = table.probe(key);
+        assertEquals(0xABCD, TranspositionTable.getMove(data));
+        assertEquals(-1234, TranspositionTable.getScore(data));
+        assertEquals(7, TranspositionTable.getDepth(data));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(data));
+        assertEquals(0L, table.probe(key ^ 1L << 40));
+
+        assertThrows(IllegalArgumentException.class, () -> table.store(key, 0, 0, 0, 0));
+    }
+
+    @Test
+    void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 42L;
+        table.store(key, 1, 10, 8, TranspositionTable.EXACT);
+        // a shallower bound does not replace a deeper entry of the same search
+        table.store(key, 2, 20, 3, TranspositionTable.UPPER_BOUND);
+        assertEquals(8, TranspositionTable.getDepth(table.probe(key)));
+        // the best move is kept if the new entry has none
+        table.store(key, 0, 30, 9, TranspositionTable.EXACT);
+        assertEquals(1, TranspositionTable.getMove(table.probe(key)));
+        assertEquals(30, TranspositionTable.getScore(table.probe(key)));
+
+        // keys with the same bucket, the shallowest entry is replaced when the bucket is full
+        long bucketStep = (long) table.getCapacity() / 4;
+        for (int i = 1; i <= 3; i++) {
+            table.store(key + i * bucketStep, i, 0, 10 + i, TranspositionTable.EXACT);
+        }
+        table.store(key + 4 * bucketStep, 4, 0, 20, TranspositionTable.EXACT);
+        assertEquals(0L, table.probe(key));
+        assertEquals(11, TranspositionTable.getDepth(table.probe(key + bucketStep)));
+
+        // entries of an older search are replaced first, even if they are deeper
+        table.newSearch();
+        table.store(key + 5 * bucketStep, 5, 0, 1, TranspositionTable.EXACT);
+        assertEquals(0L, table.probe(key + bucketStep));
+        assertTrue(table.probe(key + 5 * bucketStep) != 0);
+
+        table.clear();
+        assertEquals(0L, table.probe(key + 4 * bucketStep));
+    }
+
+    @Test
+    void concurrentAccess() {
+        TranspositionTable table = new TranspositionTable(1);
+        long[] keys = new SplittableRandom(1).longs(1 << 16).toArray();
+        IntStream.range(0, 4).parallel().forEach(thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 100_000; i++) {
+                // the score is derived from the key, so a torn entry would be noticed
+                long key = keys[random.nextInt(keys.length)];
+                long data = table.probe(key);
+                if (data != 0) {
+                    assertEquals((short) (key >>> 48), TranspositionTable.getScore(data));
+                }
+                table.store(key, 0, (short) (key >>> 48), random.nextInt(20), TranspositionTable.EXACT);
+            }
+        });
+        assertTrue(table.getHashfull() > 0);
+    }
+}
@@ -0,0 +1,105 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Moves;
+
+class EngineTest {
+
+    @Test
+    void mateInOne() {
+        Board board = Board.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Engine(1).search(board, new SearchLimits().setDepth(4));
+        assertEquals("a1a8", Moves.toString(result.getEncodedBestMove()));
+        assertEquals(Engine.MATE - 1, result.getScore());
+        assertTrue(result.isMate());
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", board.toFen());
+    }
+
+    @Test
+    void mateInTwo() {
+        Board board = Board.fromFen("7k/8/5K2/8/8/8/8/R7 w - - 0 1");
+        SearchResult result = new Engine(1).search(board, new SearchLimits().setDepth(5));
+        assertEquals(Engine.MATE - 3, result.getScore());
+        assertEquals(3, result.getPrincipalVariation().length);
+    }
+
+    @Test
+    void capture() {
+        SearchResult result = new Engine(1).search(Board.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1"), new SearchLimits().setDepth(3));
+        assertEquals("d1d5", Moves.toString(result.getEncodedBestMove()));
+        assertFalse(result.isMate());
+    }
+
+    @Test
+    void quiescence() {
+        // without resolving the captures at the leaves the Queen would take the defended Pawn
+        SearchResult result = new Engine(1).search(Board.fromFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1"), new SearchLimits().setDepth(1));
+        assertFalse("d1d5".equals(Moves.toString(result.getEncodedBestMove())));
+        assertTrue(result.getScore() > 500);
+    }
+
+    @Test
+    void options() {
+        Engine engine = new Engine(1);
+        engine.setOptions(new SearchOptions().setNullMovePruning(false).setLateMoveReductions(false)
+                .setFutilityPruning(false).setReverseFutilityPruning(false).setCheckExtensions(false));
+        assertFalse(engine.getOptions().isNullMovePruning());
+        SearchResult full = engine.search(Board.fromFen("7k/8/5K2/8/8/8/8/R7 w - - 0 1"), new SearchLimits().setDepth(5));
+        assertEquals(Engine.MATE - 3, full.getScore());
+
+        // with all pruning enabled the search reaches a higher depth with the same nodes
+        engine.clear();
+        SearchResult unpruned = engine.search(new Board(), new SearchLimits().setNodes(50000));
+        engine.setOptions(new SearchOptions());
+        engine.clear();
+        SearchResult pruned = engine.search(new Board(), new SearchLimits().setNodes(50000));
+        assertTrue(pruned.getDepth() > unpruned.getDepth());
+    }
+
+    @Test
+    void noMove() {
+        SearchResult mate = new Engine(1).search(Board.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 1 1"), new SearchLimits());
+        assertFalse(mate.hasBestMove());
+        assertNull(mate.getBestMove());
+        assertEquals(-Engine.MATE, mate.getScore());
+        SearchResult stalemate = new Engine(1).search(Board.fromFen("7k/5Q2/8/8/8/8/8/K7 b - - 0 1"), new SearchLimits());
+        assertFalse(stalemate.hasBestMove());
+        assertEquals(0, stalemate.getScore());
+    }
+
+    @Test
+    void repetition() {
+        Board board = new Board();
+        for (int i = 0; i < 2; i++) {
+            board.makeMove(Moves.encode(6, 21, Moves.QUIET));
+            board.makeMove(Moves.encode(62, 45, Moves.QUIET));
+            board.makeMove(Moves.encode(21, 6, Moves.QUIET));
+            board.makeMove(Moves.encode(45, 62, Moves.QUIET));
+        }
+        assertEquals(8, board.getRepetitionKeys().length);
+        assertEquals(board.getZobristKey(), board.getRepetitionKeys()[0]);
+    }
+
+    @Test
+    void limits() {
+        Engine engine = new Engine(1);
+        SearchResult nodes = engine.search(new Board(), new SearchLimits().setNodes(5000));
+        assertTrue(nodes.getNodes() <= 5000);
+        assertTrue(nodes.hasBestMove());
+        assertTrue(new Board().isMoveValid(nodes.getBestMove()));
+
+        SearchResult time = engine.search(new Board(), new SearchLimits().setTime(200));
+        assertTrue(time.getTime() < 1000);
+        assertTrue(time.getDepth() > 0);
+
+        SearchResult first = engine.search(new Board(), new SearchLimits().setNodes(1));
+        assertTrue(first.hasBestMove());
+    }
+}
@@ -0,0 +1,91 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.Move;
+import com.gameofjess.javachess.chesslogic.Perft;
+import com.gameofjess.javachess.chesslogic.PieceSquareTables;
+import com.gameofjess.javachess.chesslogic.Position;
+
+class EvaluationTest {
+
+    @Test
+    void incremental() {
+        PawnHashTable pawnTable = new PawnHashTable(1);
+        for (Perft.Reference reference : Perft.Reference.values()) {
+            assertIncremental(reference.getBoard(), 3, pawnTable);
+        }
+        assertTrue(pawnTable.getHits() > 0);
+        Board board = Perft.Reference.KIWIPETE.getBoard();
+        assertEquals(Evaluation.evaluate(board), Evaluation.evaluate(new Board(board)));
+    }
+
+    private static void assertIncremental(Board board, int depth, PawnHashTable pawnTable) {
+        int score = Evaluation.evaluate(board, pawnTable);
+        assertEquals(Evaluation.evaluateFromScratch(board), score);
+        assertEquals(Evaluation.evaluate(board), score);
+        if (depth == 0) {
+            return;
+        }
+        for (Move move : board.getLegalMoves(board.isWhiteToMove())) {
+            board.makeMove(move);
+            assertIncremental(board, depth - 1, pawnTable);
+            board.unmakeMove();
+            assertEquals(score, Evaluation.evaluate(board));
+        }
+    }
+
+    @Test
+    void symmetry() {
+        Board board = new Board();
+        assertEquals(0, Evaluation.evaluate(board));
+        assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+        assertEquals(Evaluation.evaluate(Board.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1")),
+                Evaluation.evaluate(Board.fromFen("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1")));
+    }
+
+    @Test
+    void pawns() {
+        // doubled and isolated Pawns on the e-file, which are passed as well, and a passed Pawn on a6
+        // that is not isolated
+        long structure = Evaluation.evaluatePawns(Board.fromFen("4k3/8/P7/1P6/8/4P3/4P3/4K3 w - - 0 1"));
+        long passed = Evaluation.evaluatePawns(Board.fromFen("4k3/8/P7/1P6/8/8/8/4K3 w - - 0 1"));
+        assertEquals(-10 - 2 * 10 + 5 + 10, PawnHashTable.getMidgame(structure) - PawnHashTable.getMidgame(passed));
+        assertEquals(-20 - 2 * 15 + 10 + 15, PawnHashTable.getEndgame(structure) - PawnHashTable.getEndgame(passed));
+        assertEquals(40 + 25, PawnHashTable.getMidgame(passed));
+
+        // a shield of three Pawns on the King side, one of them advanced
+        long shield = Evaluation.evaluatePawns(Board.fromFen("6k1/5ppp/8/8/8/6P1/5P1P/6K1 w - - 0 1"));
+        assertEquals(25, PawnHashTable.getShield(shield, true, PawnHashTable.KING_SIDE));
+        assertEquals(30, PawnHashTable.getShield(shield, false, PawnHashTable.KING_SIDE));
+        assertEquals(0, PawnHashTable.getShield(shield, true, PawnHashTable.QUEEN_SIDE));
+    }
+
+    @Test
+    void pawnKey() {
+        Board board = new Board();
+        long pawnKey = board.getPawnKey();
+        board.makeMove(new Move(new Position(6, 0), new Position(5, 2)));
+        assertEquals(pawnKey, board.getPawnKey());
+        board.makeMove(new Move(new Position(3, 6), new Position(3, 4)));
+        assertNotEquals(pawnKey, board.getPawnKey());
+        board.unmakeMove();
+        assertEquals(pawnKey, board.getPawnKey());
+        assertEquals(pawnKey, new Board(board).getPawnKey());
+    }
+
+    @Test
+    void taper() {
+        // a King in the center is bad in the middlegame but good in the endgame
+        Board endgame = Board.fromFen("8/8/8/3k4/8/8/8/4K3 b - - 0 1");
+        assertEquals(0, endgame.getPhase());
+        assertTrue(Evaluation.evaluate(endgame) > 0);
+        assertEquals(PieceSquareTables.taper(100, 300, 6), (100 * 6 + 300 * 18) / 24);
+        assertEquals(100, PieceSquareTables.taper(100, 300, 30));
+    }
+}
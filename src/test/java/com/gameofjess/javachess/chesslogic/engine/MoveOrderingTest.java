@@ -0,0 +1,57 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
+
+class MoveOrderingTest {
+
+    @Test
+    void order() {
+        // the white Queen on d4 can take the black Queen on d7 or the Pawn on b6, the Knight on c3 the
+        // Pawn on b5, which is defended by the black Queen
+        Board board = Board.fromFen("4k3/3q4/1p6/1p6/3Q4/2N5/8/4K3 w - - 0 1");
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(true, moves);
+        int tt = Moves.encode(board.getKingWhite().getSquare(), board.getKingWhite().getSquare() + 1, Moves.QUIET);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.score(board, moves, 0, tt, Moves.NONE);
+
+        assertEquals(tt, ordering.next(moves, 0, 0));
+        assertEquals("d4d7", Moves.toString(ordering.next(moves, 0, 1)));
+        assertEquals("d4b6", Moves.toString(ordering.next(moves, 0, 2)));
+        for (int i = 3; i < moves.size() - 1; i++) {
+            assertFalse(MoveOrdering.isTactical(ordering.next(moves, 0, i)));
+        }
+        assertEquals("c3b5", Moves.toString(ordering.next(moves, 0, moves.size() - 1)));
+    }
+
+    @Test
+    void killersAndHistory() {
+        Board board = new Board();
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(true, moves);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.score(board, moves, 3, Moves.NONE, Moves.NONE);
+        int first = ordering.next(moves, 3, 0);
+        int cutoff = ordering.next(moves, 3, 1);
+        ordering.update(board, moves, 3, 2, 4, Moves.NONE);
+
+        moves.clear();
+        board.generateLegalMoves(true, moves);
+        ordering.score(board, moves, 3, Moves.NONE, Moves.NONE);
+        assertEquals(cutoff, ordering.next(moves, 3, 0));
+        ordering.score(board, moves, 5, Moves.NONE, Moves.NONE);
+        // no killer at this ply, but the cutoff move has the highest history and the move searched before it the lowest
+        assertEquals(cutoff, ordering.next(moves, 5, 0));
+        for (int i = 1; i < moves.size() - 1; i++) {
+            ordering.next(moves, 5, i);
+        }
+        assertEquals(first, ordering.next(moves, 5, moves.size() - 1));
+    }
+}
@@ -0,0 +1,37 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class PawnHashTableTest {
+
+    @Test
+    void pack() {
+        long shields = PawnHashTable.shield(true, PawnHashTable.KING_SIDE, 25) | PawnHashTable.shield(false, PawnHashTable.QUEEN_SIDE, 40);
+        long data = PawnHashTable.pack(-123, 456, shields);
+        assertEquals(-123, PawnHashTable.getMidgame(data));
+        assertEquals(456, PawnHashTable.getEndgame(data));
+        assertEquals(25, PawnHashTable.getShield(data, true, PawnHashTable.KING_SIDE));
+        assertEquals(31, PawnHashTable.getShield(data, false, PawnHashTable.QUEEN_SIDE));
+        assertEquals(0, PawnHashTable.getShield(data, false, PawnHashTable.CENTER));
+        assertEquals(0, PawnHashTable.getShield(PawnHashTable.pack(0, 0, 0L), true, PawnHashTable.CENTER));
+    }
+
+    @Test
+    void probe() {
+        PawnHashTable table = new PawnHashTable(1);
+        long data = PawnHashTable.pack(0, 0, 0L);
+        assertEquals(0L, table.probe(0L));
+        table.store(0L, data);
+        assertEquals(data, table.probe(0L));
+        assertEquals(0L, table.probe(1L << 40));
+        assertEquals(3, table.getProbes());
+        assertEquals(1, table.getHits());
+        assertEquals(1.0 / 3, table.getHitRate());
+
+        table.clear();
+        assertEquals(0L, table.probe(0L));
+        assertEquals(0, table.getHitRate());
+    }
+}
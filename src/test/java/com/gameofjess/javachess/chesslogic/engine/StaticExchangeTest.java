@@ -0,0 +1,49 @@
+package com.gameofjess.javachess.chesslogic.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.MoveList;
+import com.gameofjess.javachess.chesslogic.Moves;
+
+class StaticExchangeTest {
+
+    // shared by all exchanges of a test, so that they reuse its array of gains
+    private final StaticExchange staticExchange = new StaticExchange();
+
+    @Test
+    void evaluate() {
+        assertEquals(100, see("4k3/8/8/3p4/8/8/8/3RK3 w - - 0 1", "d1d5"));
+        assertEquals(-800, see("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1", "d1d5"));
+        assertEquals(100, see("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5d6"));
+        assertEquals(800, see("4k3/8/8/8/8/8/3p4/K7 b - - 0 1", "d2d1q"));
+        assertEquals(-100, see("4k3/8/8/8/8/8/3p4/4K3 b - - 0 1", "d2d1q"));
+    }
+
+    @Test
+    void xray() {
+        assertEquals(100, see("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+        assertEquals(-400, see("3rk3/3r4/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2d5"));
+    }
+
+    @Test
+    void king() {
+        // the King on e1 cannot take back on d2 as the Rook on d8 defends the Queen from behind
+        assertEquals(100, see("3rk3/3q4/8/8/8/8/3P4/4K3 b - - 0 1", "d7d2"));
+        assertEquals(-800, see("4k3/3q4/8/8/8/8/3P4/4K3 b - - 0 1", "d7d2"));
+    }
+
+    private int see(String fen, String notation) {
+        Board board = Board.fromFen(fen);
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.isWhiteToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Moves.toString(moves.get(i)).equals(notation)) {
+                return staticExchange.evaluate(board, moves.get(i));
+            }
+        }
+        throw new IllegalArgumentException("No move " + notation);
+    }
+}
@@ -45,6 +45,7 @@ public class ClientMessageTest {
         assertThrows(IllegalArgumentException.class, () -> new ClientMessage("", MessageType.SERVERERROR));
         assertThrows(IllegalArgumentException.class, () -> new ClientMessage("", MessageType.SERVERINFO));
         assertThrows(IllegalArgumentException.class, () -> new ClientMessage("", MessageType.BEGINMATCH));
+        assertThrows(IllegalArgumentException.class, () -> new ClientMessage("", MessageType.DRAW));
     }
 
     /**
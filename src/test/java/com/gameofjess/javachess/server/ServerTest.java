@@ -1,5 +1,6 @@
 package com.gameofjess.javachess.server;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -17,6 +18,7 @@ import org.java_websocket.handshake.ClientHandshake;
 import org.junit.jupiter.api.Test;
 
 import com.gameofjess.javachess.chesslogic.Board;
+import com.gameofjess.javachess.chesslogic.BoardSnapshot;
 import com.gameofjess.javachess.chesslogic.Move;
 import com.gameofjess.javachess.chesslogic.Position;
 import com.gameofjess.javachess.chesslogic.pieces.Piece;
@@ -287,6 +289,56 @@ public class ServerTest {
         verify(testWS2).send(smsg.toJSON());
     }
 
+    @Test
+    void handleClientMessageDrawTest() {
+        Server testServer = spy(new ServerBuilder().build());
+
+        WebSocket testWS = mock(WebSocketImpl.class);
+        doCallRealMethod().when(testWS).setAttachment(any(UUID.class));
+        doCallRealMethod().when(testWS).getAttachment();
+        when(testWS.getRemoteSocketAddress()).thenReturn(new InetSocketAddress(1111));
+
+        WebSocket testWS2 = mock(WebSocketImpl.class);
+        doCallRealMethod().when(testWS2).setAttachment(any(UUID.class));
+        doCallRealMethod().when(testWS2).getAttachment();
+        when(testWS2.getRemoteSocketAddress()).thenReturn(new InetSocketAddress(2222));
+
+        when(testServer.getConnections()).thenReturn(List.of(testWS, testWS2));
+
+        ClientHandshake testHandshake = mock(ClientHandshake.class);
+        when(testHandshake.hasFieldValue("username")).thenReturn(true);
+        when(testHandshake.getFieldValue("username")).thenReturn("TestUser");
+        when(testHandshake.hasFieldValue("color")).thenReturn(true);
+        when(testHandshake.getFieldValue("color")).thenReturn(Color.RANDOM.name());
+
+        ClientHandshake testHandshake2 = mock(ClientHandshake.class);
+        when(testHandshake2.hasFieldValue("username")).thenReturn(true);
+        when(testHandshake2.getFieldValue("username")).thenReturn("TestUser2");
+        when(testHandshake2.hasFieldValue("color")).thenReturn(true);
+        when(testHandshake2.getFieldValue("color")).thenReturn(Color.RANDOM.name());
+
+        testServer.onOpen(testWS, testHandshake);
+        testServer.onOpen(testWS2, testHandshake2);
+
+        // moving the knights back and forth repeats the initial position for the third time
+        Move[] moves = {
+                new Move(new Position(1, 0), new Position(2, 2)),
+                new Move(new Position(1, 7), new Position(2, 5)),
+                new Move(new Position(2, 2), new Position(1, 0)),
+                new Move(new Position(2, 5), new Position(1, 7))
+        };
+        for (int i = 0; i < 8; i++) {
+            testServer.onMessage(i % 2 == 0 ? testWS : testWS2, new ClientMessage(moves[i % 4]).toJSON());
+        }
+
+        BoardSnapshot snapshot = testServer.getSnapshot();
+        assertEquals(new Board().getZobristKey(), snapshot.getZobristKey());
+        assertEquals(new Board().getZobristKey(), snapshot.getPrevious().getPrevious().getPrevious().getPrevious().getZobristKey());
+
+        verify(testServer).broadcast(argThat((String json) -> json.contains(MessageType.DRAW.name()) && json.contains("Threefold repetition")));
+        verify(testWS2).close(CloseFrame.NORMAL);
+    }
+
     @Test
     void handleClientMessageNewMoveErrorTest() {
         Server testServer = spy(new ServerBuilder().build());
@@ -334,4 +386,53 @@ public class ServerTest {
     }
 
 
+    @Test
+    void handleClientMessageNewMoveOutOfTurnTest() {
+        Server testServer = spy(new ServerBuilder().build());
+
+        WebSocket testWS = mock(WebSocketImpl.class);
+        doCallRealMethod().when(testWS).setAttachment(any(UUID.class));
+        doCallRealMethod().when(testWS).getAttachment();
+        when(testWS.getRemoteSocketAddress()).thenReturn(new InetSocketAddress(1111));
+
+        WebSocket testWS2 = mock(WebSocketImpl.class);
+        doCallRealMethod().when(testWS2).setAttachment(any(UUID.class));
+        doCallRealMethod().when(testWS2).getAttachment();
+        when(testWS.getRemoteSocketAddress()).thenReturn(new InetSocketAddress(1111));
+
+        when(testServer.getConnections()).thenReturn(List.of(testWS, testWS2));
+
+        ClientHandshake testHandshake = mock(ClientHandshake.class);
+        when(testHandshake.hasFieldValue("username")).thenReturn(true);
+        when(testHandshake.getFieldValue("username")).thenReturn("TestUser");
+        when(testHandshake.hasFieldValue("color")).thenReturn(true);
+        when(testHandshake.getFieldValue("color")).thenReturn(Color.RANDOM.name());
+
+        ClientHandshake testHandshake2 = mock(ClientHandshake.class);
+        when(testHandshake2.hasFieldValue("username")).thenReturn(true);
+        when(testHandshake2.getFieldValue("username")).thenReturn("TestUser2");
+        when(testHandshake2.hasFieldValue("color")).thenReturn(true);
+        when(testHandshake2.getFieldValue("color")).thenReturn(Color.RANDOM.name());
+
+        testServer.onOpen(testWS, testHandshake);
+        testServer.onOpen(testWS2, testHandshake2);
+
+        // e7e5 by black, although white is to move
+        Move move = new Move(new Position(3, 6), new Position(3, 4));
+
+        Message cmsg = new ClientMessage(move);
+
+        testServer.onMessage(testWS, cmsg.toJSON());
+
+        Message smsg = new ServerMessage("TestUser", MessageType.NEWMOVE, cmsg.getTime(), cmsg.getMessage());
+
+        verify(testWS2, never()).send(smsg.toJSON());
+
+        Message errorMessage = new ServerMessage(MessageType.SERVERERROR, cmsg.getTime(), "Invalid move made by TestUser! Closing game!");
+
+        verify(testServer).broadcast(errorMessage.toJSON());
+        assertEquals(new Board().toFen(), testServer.getSnapshot().toFen());
+    }
+
+
 }